@@ -0,0 +1,85 @@
+package ru.adel.benchmarks.catalogue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.adel.catalogue.domain.projection.ProductView;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Цена gzip на списках товаров разного размера: сжатие на стороне каталога (уровень по умолчанию, как у Tomcat)
+ * и распаковка на стороне менеджера. Размер тела до и после сжатия печатается при подготовке.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressionBenchmark {
+
+    @Param({"json", "smile"})
+    String format;
+
+    @Param({"10", "100", "500", "5000"})
+    int size;
+
+    @Param({"0", "1000"})
+    int detailsLength;
+
+    byte[] payload;
+
+    byte[] compressed;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = switch (this.format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> throw new IllegalArgumentException(this.format);
+        };
+        this.payload = objectMapper.writeValueAsBytes(IntStream.rangeClosed(1, this.size)
+                .mapToObj(i -> new ProductView(i, "Название товара " + i, details(i, this.detailsLength), 0))
+                .toList());
+        this.compressed = compress();
+        System.out.printf("%n%s: %d товаров с описаниями по %d символов, %d байт, gzip %d байт (%.1f%%)%n",
+                this.format, this.size, this.detailsLength, this.payload.length, this.compressed.length,
+                100.0 * this.compressed.length / this.payload.length);
+    }
+
+    @Benchmark
+    public byte[] compress() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(this.payload.length / 2);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+            gzipOutputStream.write(this.payload);
+        }
+        return outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] decompress() throws IOException {
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(this.compressed))) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    private static String details(int productId, int length) {
+        if (length == 0) {
+            return null;
+        }
+        StringBuilder details = new StringBuilder(length);
+        while (details.length() < length) {
+            details.append("Описание товара ").append(productId).append(", партия ").append(details.length()).append(". ");
+        }
+        return details.substring(0, length);
+    }
+}
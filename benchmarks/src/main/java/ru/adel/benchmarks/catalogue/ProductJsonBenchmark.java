@@ -0,0 +1,51 @@
+package ru.adel.benchmarks.catalogue;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.adel.catalogue.domain.entity.Product;
+import ru.adel.catalogue.domain.projection.ProductView;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductJsonBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int size;
+
+    ObjectMapper objectMapper;
+
+    List<ProductView> productViews;
+
+    List<Product> products;
+
+    @Setup
+    public void setUp() {
+        this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        this.productViews = IntStream.rangeClosed(1, this.size)
+                .mapToObj(i -> new ProductView(i, "Название товара " + i, "Описание товара " + i, 0))
+                .toList();
+        this.products = IntStream.rangeClosed(1, this.size)
+                .mapToObj(i -> new Product(i, "Название товара " + i, "Описание товара " + i, 0))
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializeProductViews() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.productViews);
+    }
+
+    @Benchmark
+    public byte[] serializeProducts() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.products);
+    }
+}
@@ -0,0 +1,94 @@
+package ru.adel.benchmarks.catalogue;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.adel.catalogue.CatalogueServiceApplication;
+import ru.adel.catalogue.domain.entity.Product;
+import ru.adel.catalogue.domain.projection.ProductCursor;
+import ru.adel.catalogue.repository.ProductRepository;
+import ru.adel.catalogue.service.ProductService;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Чтение страницы товаров с сериализацией в JSON: через управляемые сущности в пишущей транзакции (прежний путь)
+ * и через проекции {@link ProductService} в транзакции только для чтения.
+ * Выделяемую на запрос память показывает {@code gc.alloc.rate.norm} профилировщика {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProductReadPathBenchmark {
+
+    private static final int PRODUCTS_COUNT = 1_000;
+
+    private static final int PAGE_SIZE = 500;
+
+    EmbeddedPostgres postgres;
+
+    ConfigurableApplicationContext context;
+
+    ProductService productService;
+
+    ProductRepository productRepository;
+
+    TransactionTemplate transactionTemplate;
+
+    ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.postgres = EmbeddedPostgres.start();
+        this.context = new SpringApplicationBuilder(CatalogueServiceApplication.class)
+                .resourceLoader(new DefaultResourceLoader(new ProductServiceBenchmark.CatalogueMigrationsClassLoader(
+                        ProductReadPathBenchmark.class.getClassLoader())))
+                .properties(Map.of(
+                        "spring.datasource.url", this.postgres.getJdbcUrl("postgres", "postgres"),
+                        "spring.cache.type", "none",
+                        "spring.security.oauth2.resourceserver.jwt.issuer-uri", "http://localhost/realms/benchmarks",
+                        "server.port", "0",
+                        "spring.main.banner-mode", "off",
+                        "logging.level.root", "warn"))
+                .run();
+
+        this.context.getBean(JdbcTemplate.class).update("""
+                insert into catalogue.t_product (c_title, c_details)
+                select 'Название товара ' || i, 'Описание товара ' || i
+                from generate_series(1, ?) i""", PRODUCTS_COUNT);
+        this.productService = this.context.getBean(ProductService.class);
+        this.productRepository = this.context.getBean(ProductRepository.class);
+        this.transactionTemplate = this.context.getBean(TransactionTemplate.class);
+        this.objectMapper = this.context.getBean(ObjectMapper.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.context.close();
+        this.postgres.close();
+    }
+
+    @Benchmark
+    public byte[] entities() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.transactionTemplate.execute(status -> this.productRepository
+                .findAllByIdGreaterThanOrderById(0, Limit.of(PAGE_SIZE), Product.class)));
+    }
+
+    @Benchmark
+    public byte[] projections() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(
+                this.productService.findAllProducts(null, ProductCursor.START, PAGE_SIZE));
+    }
+}
@@ -0,0 +1,142 @@
+package ru.adel.benchmarks.catalogue;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.adel.catalogue.CatalogueServiceApplication;
+import ru.adel.catalogue.domain.entity.Product;
+import ru.adel.catalogue.domain.projection.ProductCursor;
+import ru.adel.catalogue.domain.projection.ProductView;
+import ru.adel.catalogue.service.ProductService;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ProductService} из catalogue-service поверх встроенного PostgreSQL, без кеша товаров.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    private static final int PRODUCTS_COUNT = 10_000;
+
+    private static final int PAGE_SIZE = 50;
+
+    EmbeddedPostgres postgres;
+
+    ConfigurableApplicationContext context;
+
+    ProductService productService;
+
+    int[] productIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.postgres = EmbeddedPostgres.start();
+        this.context = new SpringApplicationBuilder(CatalogueServiceApplication.class)
+                .resourceLoader(new DefaultResourceLoader(new CatalogueMigrationsClassLoader(
+                        ProductServiceBenchmark.class.getClassLoader())))
+                .properties(Map.of(
+                        "spring.datasource.url",
+                        this.postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size", "50",
+                        "spring.jpa.properties.hibernate.order_inserts", "true",
+                        "spring.jpa.properties.hibernate.order_updates", "true",
+                        "spring.cache.type", "none",
+                        "spring.security.oauth2.resourceserver.jwt.issuer-uri", "http://localhost/realms/benchmarks",
+                        "server.port", "0",
+                        "spring.main.banner-mode", "off",
+                        "logging.level.root", "warn"))
+                .run();
+
+        JdbcTemplate jdbcTemplate = this.context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("""
+                insert into catalogue.t_product (c_title, c_details)
+                select 'Название товара ' || i, 'Описание товара ' || i
+                from generate_series(1, ?) i""", PRODUCTS_COUNT);
+        this.productIds = jdbcTemplate.queryForList("select id from catalogue.t_product order by id", Integer.class)
+                .stream()
+                .mapToInt(Integer::intValue)
+                .toArray();
+        this.productService = this.context.getBean(ProductService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.context.close();
+        this.postgres.close();
+    }
+
+    @Benchmark
+    public Optional<ProductView> findProduct() {
+        return this.productService.findProduct(randomProductId());
+    }
+
+    @Benchmark
+    public List<ProductView> findProductsPage() {
+        return this.productService.findAllProducts(null, new ProductCursor(randomProductId(), null), PAGE_SIZE + 1);
+    }
+
+    @Benchmark
+    public List<ProductView> searchProducts() {
+        return this.productService.findAllProducts(
+                "товара " + ThreadLocalRandom.current().nextInt(1, 1000), ProductCursor.START, PAGE_SIZE + 1);
+    }
+
+    @Benchmark
+    public Product createProduct() {
+        return this.productService.createProduct("Новый товар", "Описание нового товара");
+    }
+
+    @Benchmark
+    public void updateProduct() {
+        int productId = randomProductId();
+        this.productService.updateProduct(productId, "Обновлённый товар " + productId, "Новое описание", null);
+    }
+
+    private int randomProductId() {
+        return this.productIds[ThreadLocalRandom.current().nextInt(this.productIds.length)];
+    }
+
+    /**
+     * В classpath модуля лежат оба сервиса, и у каждого есть свой {@code db/migration}.
+     * Flyway получает загрузчик из контекста приложения, поэтому здесь в нём остаются только миграции catalogue-service.
+     */
+    static class CatalogueMigrationsClassLoader extends ClassLoader {
+
+        private static final String MIGRATIONS_LOCATION = "db/migration";
+
+        private final String catalogueLocation = CatalogueServiceApplication.class.getProtectionDomain()
+                .getCodeSource().getLocation().getPath();
+
+        CatalogueMigrationsClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        public Enumeration<URL> getResources(String name) throws IOException {
+            Enumeration<URL> resources = super.getResources(name);
+            if (!name.startsWith(MIGRATIONS_LOCATION)) {
+                return resources;
+            }
+            return Collections.enumeration(Collections.list(resources).stream()
+                    .filter(url -> url.getPath().contains(this.catalogueLocation))
+                    .toList());
+        }
+    }
+}
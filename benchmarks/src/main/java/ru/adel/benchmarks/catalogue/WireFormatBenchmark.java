@@ -0,0 +1,83 @@
+package ru.adel.benchmarks.catalogue;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.adel.catalogue.domain.projection.ProductView;
+import ru.adel.manager.domain.entity.Product;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Форматы обмена между manager-service и catalogue-service на списке товаров без описаний и с описаниями
+ * по 1000 символов: каталог сериализует {@link ProductView}, менеджер разбирает ответ в свой {@link Product}.
+ * Размер тела для каждого формата печатается при подготовке.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    String format;
+
+    @Param("10000")
+    int size;
+
+    @Param({"0", "1000"})
+    int detailsLength;
+
+    ObjectMapper objectMapper;
+
+    JavaType productsType;
+
+    List<ProductView> productViews;
+
+    byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder objectMapperBuilder = switch (this.format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+            default -> throw new IllegalArgumentException(this.format);
+        };
+        this.objectMapper = objectMapperBuilder.build();
+        this.productsType = this.objectMapper.getTypeFactory().constructCollectionType(List.class, Product.class);
+        this.productViews = IntStream.rangeClosed(1, this.size)
+                .mapToObj(i -> new ProductView(i, "Название товара " + i, details(i, this.detailsLength), 0))
+                .toList();
+        this.payload = this.objectMapper.writeValueAsBytes(this.productViews);
+        System.out.printf("%n%s: %d товаров с описаниями по %d символов, %d байт%n",
+                this.format, this.size, this.detailsLength, this.payload.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return this.objectMapper.writeValueAsBytes(this.productViews);
+    }
+
+    @Benchmark
+    public List<Product> parse() throws IOException {
+        return this.objectMapper.readValue(this.payload, this.productsType);
+    }
+
+    private static String details(int productId, int length) {
+        if (length == 0) {
+            return null;
+        }
+        StringBuilder details = new StringBuilder(length);
+        while (details.length() < length) {
+            details.append("Описание товара ").append(productId).append(", партия ").append(details.length()).append(". ");
+        }
+        return details.substring(0, length);
+    }
+}
@@ -0,0 +1,67 @@
+package ru.adel.benchmarks.manager;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+import ru.adel.manager.domain.entity.Product;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Рендеринг шаблона {@code catalogue/products/list.html} из manager-service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductsListTemplateBenchmark {
+
+    @Param({"20", "500"})
+    int size;
+
+    SpringTemplateEngine templateEngine;
+
+    WebContext context;
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding("UTF-8");
+        this.templateEngine = new SpringTemplateEngine();
+        this.templateEngine.setTemplateResolver(templateResolver);
+
+        MockServletContext servletContext = new MockServletContext();
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/catalogue/products/list");
+        request.setParameter("after", "20");
+        List<Product> products = IntStream.rangeClosed(1, this.size)
+                .mapToObj(i -> new Product(i, "Название товара " + i, "Описание товара " + i))
+                .toList();
+        this.context = new WebContext(JakartaServletWebApplication.buildApplication(servletContext)
+                .buildExchange(request, new MockHttpServletResponse()), Locale.forLanguageTag("ru"),
+                Map.of("products", products, "filter", "товар", "nextCursor", this.size,
+                        "limit", 20, "pageSizes", List.of(20, 50, 100)));
+    }
+
+    @Benchmark
+    public String renderProductsList() {
+        StringWriter writer = new StringWriter();
+        this.templateEngine.process("catalogue/products/list", this.context, writer);
+        return writer.toString();
+    }
+}
@@ -0,0 +1,102 @@
+package ru.adel.benchmarks.manager;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+import ru.adel.manager.client.RestClientProductsRestClient;
+import ru.adel.manager.domain.entity.Product;
+import ru.adel.manager.domain.entity.ProductsPage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * {@link RestClientProductsRestClient} против заглушки catalogue-api на {@link HttpServer} в том же процессе.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class ProductsRestClientBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private static final String PRODUCT_ETAG = "\"0\"";
+
+    HttpServer server;
+
+    ExecutorService serverExecutor;
+
+    RestClientProductsRestClient productsRestClient;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        byte[] product = """
+                {"id":1,"title":"Название товара 1","details":"Описание товара 1"}"""
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] page = IntStream.rangeClosed(1, PAGE_SIZE)
+                .mapToObj("{\"id\":%1$d,\"title\":\"Название товара %1$d\",\"details\":\"Описание товара %1$d\"}"::formatted)
+                .collect(Collectors.joining(",", "[", "]"))
+                .getBytes(StandardCharsets.UTF_8);
+
+        this.serverExecutor = Executors.newCachedThreadPool();
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.setExecutor(this.serverExecutor);
+        this.server.createContext("/catalogue-api/products/1", exchange -> {
+            exchange.getResponseHeaders().add(HttpHeaders.ETAG, PRODUCT_ETAG);
+            if (PRODUCT_ETAG.equals(exchange.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+            } else {
+                respond(exchange, product);
+            }
+        });
+        this.server.createContext("/catalogue-api/products", exchange -> {
+            exchange.getResponseHeaders().add("X-Next-Cursor", String.valueOf(PAGE_SIZE));
+            respond(exchange, page);
+        });
+        this.server.start();
+
+        this.productsRestClient = new RestClientProductsRestClient(RestClient.builder()
+                .baseUrl("http://localhost:" + this.server.getAddress().getPort())
+                .build());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.server.stop(0);
+        this.serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public Optional<Product> findProduct() {
+        return this.productsRestClient.findProduct(1);
+    }
+
+    @Benchmark
+    public ProductsPage findProductsPage() {
+        return this.productsRestClient.findProductsPage(null, null, PAGE_SIZE);
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package ru.adel.benchmarks.manager;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+import ru.adel.manager.ManagerServiceApplication;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Страница товара manager-service под пачкой одновременных запросов (по умолчанию 5000): Tomcat на платформенных
+ * или виртуальных потоках ({@code spring.threads.virtual.enabled}), catalogue-api отвечает с задержкой
+ * {@value #CATALOGUE_LATENCY_MILLIS} мс. Кеш товаров отключён, чтобы каждый запрос доходил до catalogue-api,
+ * а тайм-ауты соединения и чтения увеличены, чтобы под перегрузкой измерялась задержка, а не ошибки.
+ * В classpath модуля есть и catalogue-service, поэтому автоконфигурация базы данных для manager-service отключена.
+ * Результат — время, за которое обработана вся пачка; перцентили задержки отдельных запросов печатаются
+ * после каждой итерации, закрепления потоков-носителей — через {@code jdk.tracePinnedThreads}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Dsun.net.httpserver.nodelay=true", "-Dsun.net.httpserver.maxIdleConnections=1000",
+        "-Djdk.tracePinnedThreads=short"})
+public class VirtualThreadsLoadBenchmark {
+
+    private static final int CATALOGUE_LATENCY_MILLIS = 50;
+
+    private static final int CATALOGUE_CONNECTIONS = 1000;
+
+    @Param({"false", "true"})
+    boolean virtualThreads;
+
+    @Param("5000")
+    int concurrentRequests;
+
+    ExecutorService stubExecutor;
+
+    HttpServer catalogueStub;
+
+    ConfigurableApplicationContext context;
+
+    ExecutorService clientExecutor;
+
+    HttpClient httpClient;
+
+    URI baseUri;
+
+    long[] latencies;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.stubExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        this.catalogueStub = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                CATALOGUE_CONNECTIONS);
+        this.catalogueStub.setExecutor(this.stubExecutor);
+        this.catalogueStub.createContext("/token", exchange -> respond(exchange, """
+                {"access_token":"load-test","token_type":"Bearer","expires_in":3600}"""));
+        this.catalogueStub.createContext("/catalogue-api/products/", exchange -> {
+            String productId = exchange.getRequestURI().getPath().substring("/catalogue-api/products/".length());
+            try {
+                Thread.sleep(CATALOGUE_LATENCY_MILLIS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, """
+                    {"id":%1$s,"title":"Название товара %1$s","details":"Описание товара %1$s"}"""
+                    .formatted(productId));
+        });
+        this.catalogueStub.start();
+        String catalogueUri = "http://localhost:" + this.catalogueStub.getAddress().getPort();
+
+        this.context = new SpringApplicationBuilder(ManagerServiceApplication.class, LoadTestSecurityConfig.class)
+                .properties(Map.ofEntries(
+                        Map.entry("spring.threads.virtual.enabled", String.valueOf(this.virtualThreads)),
+                        Map.entry("server.port", "0"),
+                        Map.entry("server.tomcat.accept-count", String.valueOf(this.concurrentRequests)),
+                        Map.entry("selmag.services.catalogue.uri", catalogueUri),
+                        Map.entry("selmag.services.catalogue.max-connections", String.valueOf(CATALOGUE_CONNECTIONS)),
+                        Map.entry("selmag.services.catalogue.connect-timeout", "10m"),
+                        Map.entry("selmag.services.catalogue.read-timeout", "10m"),
+                        Map.entry("selmag.services.catalogue.cache.maximum-size", "0"),
+                        Map.entry("spring.security.oauth2.client.provider.keycloak.token-uri", catalogueUri + "/token"),
+                        Map.entry("spring.security.oauth2.client.registration.keycloak.client-id", "manager-app"),
+                        Map.entry("spring.security.oauth2.client.registration.keycloak.client-secret", "secret"),
+                        Map.entry("spring.security.oauth2.client.registration.keycloak.authorization-grant-type",
+                                "client_credentials"),
+                        Map.entry("spring.autoconfigure.exclude", String.join(",",
+                                DataSourceAutoConfiguration.class.getName(),
+                                FlywayAutoConfiguration.class.getName(),
+                                HibernateJpaAutoConfiguration.class.getName())),
+                        Map.entry("spring.main.banner-mode", "off"),
+                        Map.entry("logging.level.root", "warn")))
+                .run();
+        this.baseUri = URI.create("http://localhost:"
+                + ((WebServerApplicationContext) this.context).getWebServer().getPort());
+
+        this.latencies = new long[this.concurrentRequests];
+        this.clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(this.clientExecutor)
+                .build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printLatencies() {
+        long[] sorted = this.latencies.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%nзадержка запроса, мс: p50 %.1f, p99 %.1f, max %.1f%n",
+                sorted[sorted.length / 2] / 1e6, sorted[sorted.length * 99 / 100] / 1e6,
+                sorted[sorted.length - 1] / 1e6);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.context.close();
+        this.catalogueStub.stop(0);
+        this.stubExecutor.shutdownNow();
+        this.clientExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public int productPages() {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[this.concurrentRequests];
+        for (int i = 0; i < this.concurrentRequests; i++) {
+            int request = i;
+            long startedAt = System.nanoTime();
+            responses[i] = this.httpClient.sendAsync(
+                            HttpRequest.newBuilder(this.baseUri.resolve("/catalogue/products/" + (i + 1))).build(),
+                            HttpResponse.BodyHandlers.discarding())
+                    .thenAccept(response -> {
+                        this.latencies[request] = System.nanoTime() - startedAt;
+                        if (response.statusCode() != 200) {
+                            throw new IllegalStateException("Страница товара ответила " + response.statusCode());
+                        }
+                    });
+        }
+        CompletableFuture.allOf(responses).join();
+        return this.concurrentRequests;
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+
+    /**
+     * Вместо входа через Keycloak страницы товаров открываются анонимно с ролью менеджера;
+     * токен для catalogue-api выдаёт заглушка по client_credentials.
+     */
+    @Configuration
+    static class LoadTestSecurityConfig {
+
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        public SecurityFilterChain loadTestSecurityFilterChain(HttpSecurity http) throws Exception {
+            return http
+                    .securityMatcher("/catalogue/products/*")
+                    .authorizeHttpRequests(authorizeHttpRequests -> authorizeHttpRequests
+                            .anyRequest().hasRole("MANAGER"))
+                    .anonymous(anonymous -> anonymous
+                            .principal("load-test")
+                            .authorities("ROLE_MANAGER"))
+                    .sessionManagement(sessionManagement -> sessionManagement
+                            .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package ru.adel.catalogue.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Журнал span'ов catalogue-service в формате JSON Lines. Span входящего запроса manager-service хранит
+ * в {@code parentSpanId} идентификатор span'а вызова на стороне менеджера, так что журналы двух сервисов
+ * склеиваются в одно дерево по {@code traceId} и {@code parentSpanId}.
+ */
+@Slf4j
+public class FileSpanExporter implements SpanExporter {
+
+    private static final AttributeKey<String> SERVICE_NAME = AttributeKey.stringKey("service.name");
+
+    private final Path file;
+
+    private final ObjectMapper objectMapper;
+
+    private final BufferedWriter writer;
+
+    // экспорт пишет в файл под блокировкой; ReentrantLock, в отличие от synchronized, отпускает носитель
+    // виртуального потока на время ввода-вывода
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public FileSpanExporter(Path file, ObjectMapper objectMapper) throws IOException {
+        this.file = file;
+        this.objectMapper = objectMapper;
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        this.lock.lock();
+        try {
+            for (SpanData span : spans) {
+                this.writer.write(this.objectMapper.writeValueAsString(toMap(span)));
+                this.writer.newLine();
+            }
+            this.writer.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException exception) {
+            log.warn("Не удалось записать span'ы в {}", this.file, exception);
+            return CompletableResultCode.ofFailure();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        this.lock.lock();
+        try {
+            this.writer.close();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException exception) {
+            log.warn("Не удалось закрыть {}", this.file, exception);
+            return CompletableResultCode.ofFailure();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private static Map<String, Object> toMap(SpanData span) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("traceId", span.getTraceId());
+        result.put("spanId", span.getSpanId());
+        result.put("parentSpanId", span.getParentSpanContext().isValid() ? span.getParentSpanId() : null);
+        result.put("service", span.getResource().getAttribute(SERVICE_NAME));
+        result.put("name", span.getName());
+        result.put("kind", span.getKind().name());
+        result.put("start", Instant.EPOCH.plusNanos(span.getStartEpochNanos()).toString());
+        result.put("durationMicros",
+                TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()));
+        result.put("status", span.getStatus().getStatusCode().name());
+        result.put("attributes", attributes);
+        return result;
+    }
+}
@@ -1,13 +1,22 @@
 package ru.adel.catalogue.config;
 
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.autoconfigure.web.server.ConditionalOnManagementPort;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementPortType;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.CsrfConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
 
 import static ru.adel.catalogue.domain.constant.EndpointPermission.EDIT_CATALOGUE;
 import static ru.adel.catalogue.domain.constant.EndpointPermission.VIEW_CATALOGUE;
@@ -15,15 +24,44 @@ import static ru.adel.catalogue.domain.constant.EndpointPermission.VIEW_CATALOGU
 @Configuration
 public class SecurityConfig {
 
+    /**
+     * Prometheus и пробы оркестратора обращаются к каталогу без JWT, поэтому эти эндпоинты открыты только
+     * на {@code management.server.port}, который не публикуется наружу. Остальные эндпоинты actuator и там
+     * требуют {@code view_catalogue}.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @ConditionalOnManagementPort(ManagementPortType.DIFFERENT)
+    public SecurityFilterChain managementSecurityFilterChain(HttpSecurity http, Environment environment)
+            throws Exception {
+        return http
+                .securityMatcher(new AndRequestMatcher(
+                        request -> String.valueOf(request.getLocalPort())
+                                .equals(environment.getProperty("local.management.port")),
+                        EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)))
+                .authorizeHttpRequests(authorizeHttpRequests -> authorizeHttpRequests
+                        .anyRequest().permitAll())
+                .csrf(CsrfConfigurer::disable)
+                .sessionManagement(sessionManagement -> sessionManagement
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         return http
                 .authorizeHttpRequests(authorizeHttpRequests -> authorizeHttpRequests
                         .requestMatchers(HttpMethod.POST, "/catalogue-api/products")
                         .hasAuthority(EDIT_CATALOGUE.getAuthority())
-                        .requestMatchers(HttpMethod.PATCH, "/catalogue-api/products/{productId:\\d}")
+                        .requestMatchers(HttpMethod.PATCH, "/catalogue-api/products/{productId:\\d+}")
+                        .hasAuthority(EDIT_CATALOGUE.getAuthority())
+                        .requestMatchers(HttpMethod.DELETE, "/catalogue-api/products/{productId:\\d+}")
+                        .hasAuthority(EDIT_CATALOGUE.getAuthority())
+                        .requestMatchers(HttpMethod.POST, "/catalogue-api/products/batch")
+                        .hasAuthority(EDIT_CATALOGUE.getAuthority())
+                        .requestMatchers(HttpMethod.PATCH, "/catalogue-api/products/batch")
                         .hasAuthority(EDIT_CATALOGUE.getAuthority())
-                        .requestMatchers(HttpMethod.DELETE, "/catalogue-api/products/{productId:\\d}")
+                        .requestMatchers(HttpMethod.DELETE, "/catalogue-api/products/batch")
                         .hasAuthority(EDIT_CATALOGUE.getAuthority())
                         .requestMatchers(HttpMethod.GET)
                         .hasAuthority(VIEW_CATALOGUE.getAuthority())
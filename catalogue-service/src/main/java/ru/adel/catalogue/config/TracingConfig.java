@@ -0,0 +1,26 @@
+package ru.adel.catalogue.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Трассировка: span'ы HTTP-запросов создаёт Spring Boot, продолжая контекст из заголовка W3C
+ * {@code traceparent} manager-service, span'ы JDBC-запросов — datasource-micrometer. При заданном
+ * {@code catalogue.tracing.file} span'ы пишутся в файл.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty("catalogue.tracing.file")
+    public FileSpanExporter fileSpanExporter(@Value("${catalogue.tracing.file}") Path file,
+                                             ObjectMapper objectMapper) throws IOException {
+        return new FileSpanExporter(file, objectMapper);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.adel.catalogue.config;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Кроме JSON каталог отдаёт и принимает Smile ({@code application/x-jackson-smile}) — двоичную форму
+ * того же JSON, которую по умолчанию запрашивает manager-service. Преобразователь строится из того же
+ * {@link Jackson2ObjectMapperBuilder}, что и JSON, поэтому настройки Jackson у обоих форматов общие.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+            Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapperBuilder
+                .factory(new SmileFactory())
+                .build());
+    }
+}
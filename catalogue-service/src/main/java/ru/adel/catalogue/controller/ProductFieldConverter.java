@@ -0,0 +1,20 @@
+package ru.adel.catalogue.controller;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+import ru.adel.catalogue.domain.projection.ProductField;
+
+import java.util.Locale;
+
+/**
+ * Разбирает значения параметра {@code fields} без учёта регистра: {@code fields=id,title}.
+ * Неизвестное поле даёт ошибку преобразования и ответ 400.
+ */
+@Component
+public class ProductFieldConverter implements Converter<String, ProductField> {
+
+    @Override
+    public ProductField convert(String source) {
+        return ProductField.valueOf(source.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -1,11 +1,14 @@
 package ru.adel.catalogue.controller;
 
 import ru.adel.catalogue.controller.payload.UpdateProductDto;
-import ru.adel.catalogue.domain.entity.Product;
+import ru.adel.catalogue.domain.projection.ProductField;
+import ru.adel.catalogue.domain.projection.ProductView;
 import ru.adel.catalogue.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.MessageSource;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
@@ -15,6 +18,8 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.Locale;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequiredArgsConstructor
@@ -25,21 +30,24 @@ public class ProductRestController {
 
     private final MessageSource messageSource;
 
-    @ModelAttribute("product")
-    public Product getProduct(@PathVariable("productId") int productId) {
-        return productService.findProduct(productId)
-                .orElseThrow(() -> new NoSuchElementException("catalogue.errors.product.not_found"));
-    }
-
     @GetMapping
-    public Product findProduct(@ModelAttribute("product") Product product) {
-        return product;
+    public ResponseEntity<ProductView> findProduct(@PathVariable("productId") int productId,
+                                                   @RequestParam(name = "fields", required = false)
+                                                   Set<ProductField> fields) {
+        Set<ProductField> requested = ProductField.requested(fields);
+        ProductView product = this.productService.findProduct(productId, requested)
+                .orElseThrow(() -> new NoSuchElementException("catalogue.errors.product.not_found"));
+        return ResponseEntity.ok()
+                .eTag(eTag(product, requested))
+                .body(product);
     }
 
     @PatchMapping
     public ResponseEntity<Void> updateProduct(@PathVariable("productId") int productId,
                                            @Valid @RequestBody UpdateProductDto payload,
-                                           BindingResult bindingResult) throws BindException {
+                                           BindingResult bindingResult,
+                                           @RequestHeader(name = HttpHeaders.IF_MATCH, required = false)
+                                           String ifMatch) throws BindException {
         if (bindingResult.hasErrors()) {
             if (bindingResult instanceof BindException exception) {
                 throw exception;
@@ -47,15 +55,17 @@ public class ProductRestController {
                 throw new BindException(bindingResult);
             }
         } else {
-            productService.updateProduct(productId, payload.title(), payload.details());
+            productService.updateProduct(productId, payload.title(), payload.details(), expectedVersion(ifMatch));
             return ResponseEntity.noContent()
                     .build();
         }
     }
 
     @DeleteMapping
-    public ResponseEntity<Void> deleteProduct(@PathVariable("productId") int productId) {
-        productService.deleteProduct(productId);
+    public ResponseEntity<Void> deleteProduct(@PathVariable("productId") int productId,
+                                              @RequestHeader(name = HttpHeaders.IF_MATCH, required = false)
+                                              String ifMatch) {
+        productService.deleteProduct(productId, expectedVersion(ifMatch));
         return ResponseEntity.noContent()
                 .build();
     }
@@ -68,4 +78,44 @@ public class ProductRestController {
                         this.messageSource.getMessage(exception.getMessage(), new Object[0],
                                 exception.getMessage(), locale)));
     }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ProblemDetail> handleOptimisticLockingFailureException(Locale locale) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.PRECONDITION_FAILED,
+                        this.messageSource.getMessage("catalogue.errors.product.precondition_failed", new Object[0],
+                                "catalogue.errors.product.precondition_failed", locale)));
+    }
+
+    /**
+     * Полное представление помечается версией товара, например {@code "3"}, а частичное — ещё и набором полей,
+     * например {@code "3-id,title"}: иначе закешированное полное тело подтверждалось бы ответом 304 на запрос
+     * части полей, и наоборот.
+     */
+    static String eTag(ProductView product, Set<ProductField> fields) {
+        if (fields.containsAll(ProductField.ALL)) {
+            return "\"%d\"".formatted(product.version());
+        }
+        return "\"%d-%s\"".formatted(product.version(), fields.stream()
+                .map(field -> field.name().toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining(",")));
+    }
+
+    /**
+     * Версия товара из первого тега {@code If-Match} или {@code null}, если заголовка нет или он равен {@code *}.
+     * Слабые, частичные и нераспознанные теги ни с чем не совпадают.
+     */
+    static Integer expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.split(",")[0].trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Integer.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        throw new OptimisticLockingFailureException("catalogue.errors.product.precondition_failed");
+    }
 }
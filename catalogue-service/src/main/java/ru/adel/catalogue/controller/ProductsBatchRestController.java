@@ -0,0 +1,149 @@
+package ru.adel.catalogue.controller;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.MessageSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ru.adel.catalogue.controller.payload.BatchItemResult;
+import ru.adel.catalogue.controller.payload.BatchUpdateProductDto;
+import ru.adel.catalogue.controller.payload.NewProductDto;
+import ru.adel.catalogue.domain.entity.Product;
+import ru.adel.catalogue.service.ProductService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("catalogue-api/products/batch")
+public class ProductsBatchRestController {
+
+    public static final int MAX_BATCH_SIZE = 10_000;
+
+    private final ProductService productService;
+
+    private final Validator validator;
+
+    private final MessageSource messageSource;
+
+    @PostMapping
+    public ResponseEntity<?> createProducts(@RequestBody List<NewProductDto> payload, Locale locale) {
+        if (payload.isEmpty() || payload.size() > MAX_BATCH_SIZE) {
+            return batchSizeIsInvalid(locale);
+        }
+
+        BatchItemResult[] results = new BatchItemResult[payload.size()];
+        List<Integer> indexes = new ArrayList<>(payload.size());
+        List<Product> products = new ArrayList<>(payload.size());
+        for (int i = 0; i < payload.size(); i++) {
+            NewProductDto item = payload.get(i);
+            List<String> errors = validate(item, locale);
+            if (errors.isEmpty()) {
+                indexes.add(i);
+                products.add(new Product(null, item.title(), item.details()));
+            } else {
+                results[i] = new BatchItemResult(i, HttpStatus.BAD_REQUEST.value(), null, errors);
+            }
+        }
+
+        List<Product> createdProducts = this.productService.createProducts(products);
+        for (int i = 0; i < indexes.size(); i++) {
+            int index = indexes.get(i);
+            results[index] = new BatchItemResult(index, HttpStatus.CREATED.value(),
+                    createdProducts.get(i).getId(), List.of());
+        }
+        return ResponseEntity.ok(Arrays.asList(results));
+    }
+
+    @PatchMapping
+    public ResponseEntity<?> updateProducts(@RequestBody List<BatchUpdateProductDto> payload, Locale locale) {
+        if (payload.isEmpty() || payload.size() > MAX_BATCH_SIZE) {
+            return batchSizeIsInvalid(locale);
+        }
+
+        BatchItemResult[] results = new BatchItemResult[payload.size()];
+        List<Product> products = new ArrayList<>(payload.size());
+        for (int i = 0; i < payload.size(); i++) {
+            BatchUpdateProductDto item = payload.get(i);
+            List<String> errors = validate(item, locale);
+            if (errors.isEmpty()) {
+                products.add(new Product(item.id(), item.title(), item.details()));
+            } else {
+                results[i] = new BatchItemResult(i, HttpStatus.BAD_REQUEST.value(), item == null ? null : item.id(),
+                        errors);
+            }
+        }
+
+        Set<Integer> updatedIds = this.productService.updateProducts(products);
+        for (int i = 0; i < payload.size(); i++) {
+            if (results[i] == null) {
+                results[i] = writeResult(i, payload.get(i).id(), updatedIds, locale);
+            }
+        }
+        return ResponseEntity.ok(Arrays.asList(results));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<?> deleteProducts(@RequestBody List<Integer> payload, Locale locale) {
+        if (payload.isEmpty() || payload.size() > MAX_BATCH_SIZE) {
+            return batchSizeIsInvalid(locale);
+        }
+
+        BatchItemResult[] results = new BatchItemResult[payload.size()];
+        List<Integer> ids = new ArrayList<>(payload.size());
+        for (int i = 0; i < payload.size(); i++) {
+            Integer id = payload.get(i);
+            if (id == null) {
+                results[i] = new BatchItemResult(i, HttpStatus.BAD_REQUEST.value(), null,
+                        List.of(getMessage("catalogue.products.batch.errors.id_is_null", locale)));
+            } else {
+                ids.add(id);
+            }
+        }
+
+        Set<Integer> deletedIds = this.productService.deleteProducts(ids);
+        for (int i = 0; i < payload.size(); i++) {
+            if (results[i] == null) {
+                results[i] = writeResult(i, payload.get(i), deletedIds, locale);
+            }
+        }
+        return ResponseEntity.ok(Arrays.asList(results));
+    }
+
+    private BatchItemResult writeResult(int index, Integer id, Set<Integer> affectedIds, Locale locale) {
+        if (affectedIds.contains(id)) {
+            return new BatchItemResult(index, HttpStatus.NO_CONTENT.value(), id, List.of());
+        } else {
+            return new BatchItemResult(index, HttpStatus.NOT_FOUND.value(), id,
+                    List.of(getMessage("catalogue.errors.product.not_found", locale)));
+        }
+    }
+
+    private List<String> validate(Object item, Locale locale) {
+        if (item == null) {
+            return List.of(getMessage("errors.400.title", locale));
+        }
+        return this.validator.validate(item).stream()
+                .map(ConstraintViolation::getMessage)
+                .toList();
+    }
+
+    private ResponseEntity<ProblemDetail> batchSizeIsInvalid(Locale locale) {
+        return ResponseEntity.badRequest()
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST,
+                        this.messageSource.getMessage("catalogue.products.batch.errors.size_is_invalid",
+                                new Object[]{MAX_BATCH_SIZE}, "catalogue.products.batch.errors.size_is_invalid",
+                                locale)));
+    }
+
+    private String getMessage(String code, Locale locale) {
+        return this.messageSource.getMessage(code, new Object[0], code, locale);
+    }
+}
@@ -1,28 +1,123 @@
 package ru.adel.catalogue.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import ru.adel.catalogue.controller.payload.NewProductDto;
 import ru.adel.catalogue.domain.entity.Product;
+import ru.adel.catalogue.domain.projection.ProductCursor;
+import ru.adel.catalogue.domain.projection.ProductField;
+import ru.adel.catalogue.domain.projection.ProductView;
 import ru.adel.catalogue.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.MessageSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindException;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("catalogue-api/products")
 public class ProductsRestController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private final ProductService productService;
 
+    private final ObjectMapper objectMapper;
+
+    private final MessageSource messageSource;
+
+    /**
+     * {@code fields} перечисляет нужные поля товаров, например {@code fields=id,title}; по умолчанию отдаются все.
+     */
     @GetMapping
-    public Iterable<Product> findProducts(@RequestParam(name = "filter", required = false) String filter) {
-        return this.productService.findAllProducts(filter);
+    public ResponseEntity<List<ProductView>> findProducts(@RequestParam(name = "filter", required = false) String filter,
+                                                          @RequestParam(name = "after", defaultValue = "0")
+                                                          ProductCursor after,
+                                                          @RequestParam(name = "limit",
+                                                                  defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+                                                          @RequestParam(name = "fields", required = false)
+                                                          Set<ProductField> fields) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<ProductView> products = this.productService.findAllProducts(filter, after, pageSize + 1,
+                ProductField.requested(fields));
+        if (products.size() > pageSize) {
+            List<ProductView> page = products.subList(0, pageSize);
+            return ResponseEntity.ok()
+                    .header(NEXT_CURSOR_HEADER, ProductCursor.after(page.get(pageSize - 1)).toString())
+                    .body(page);
+        } else {
+            return ResponseEntity.ok(products);
+        }
+    }
+
+    /**
+     * Отдаёт найденные товары из перечисленных в {@code ids} одним запросом к базе, отсортированными по идентификатору.
+     * Отсутствующие товары в ответ не попадают.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> findProductsByIds(@RequestParam("ids") List<Integer> ids, Locale locale) {
+        Set<Integer> productIds = ids.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (productIds.isEmpty() || productIds.size() > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST,
+                            this.messageSource.getMessage("catalogue.products.ids.errors.size_is_invalid",
+                                    new Object[]{MAX_PAGE_SIZE}, "catalogue.products.ids.errors.size_is_invalid",
+                                    locale)));
+        }
+        return ResponseEntity.ok(this.productService.findProducts(productIds));
+    }
+
+    /**
+     * Выгружает все товары, подходящие под {@code filter}, построчно. Порядок тот же, что и у постраничного
+     * списка: с фильтром — по похожести названия, затем по идентификатору, без фильтра — по идентификатору.
+     */
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportProductsAsNdjson(
+            @RequestParam(name = "filter", required = false) String filter) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(outputStream -> exportProducts(filter, productsWriter().withRootValueSeparator("\n")
+                        .writeValues(outputStream)));
+    }
+
+    /**
+     * Как {@link #exportProductsAsNdjson(String)}, но одним JSON-массивом.
+     */
+    @GetMapping(params = "stream=true", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportProductsAsJsonArray(
+            @RequestParam(name = "filter", required = false) String filter) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> exportProducts(filter, productsWriter().writeValuesAsArray(outputStream)));
     }
 
     @PostMapping
@@ -44,4 +139,22 @@ public class ProductsRestController {
                     .body(product);
         }
     }
+
+    private ObjectWriter productsWriter() {
+        return this.objectMapper.writerFor(ProductView.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private void exportProducts(String filter, SequenceWriter sequenceWriter) throws IOException {
+        try (sequenceWriter) {
+            this.productService.exportProducts(filter, product -> {
+                try {
+                    sequenceWriter.write(product);
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            });
+        }
+    }
 }
@@ -0,0 +1,6 @@
+package ru.adel.catalogue.controller.payload;
+
+import java.util.List;
+
+public record BatchItemResult(int index, int status, Integer id, List<String> errors) {
+}
@@ -0,0 +1,16 @@
+package ru.adel.catalogue.controller.payload;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record BatchUpdateProductDto(
+        @NotNull(message = "{catalogue.products.batch.errors.id_is_null}")
+        Integer id,
+        @NotNull(message = "{catalogue.products.update.errors.title_is_null}")
+        @NotBlank(message ="{catalogue.products.update.errors.title_is_blank}")
+        @Size(min = 3, max = 50, message = "{catalogue.products.update.errors.title_size_is_invalid}")
+        String title,
+        @Size(max = 1000, message = "{catalogue.products.update.errors.details_size_is_invalid}")
+        String details) {
+}
@@ -15,7 +15,9 @@ import lombok.NoArgsConstructor;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_id_seq")
+    @SequenceGenerator(name = "product_id_seq", schema = "catalogue", sequenceName = "t_product_id_seq",
+            allocationSize = 50)
     private Integer id;
 
     @Column(name = "c_title")
@@ -26,4 +28,12 @@ public class Product {
     @Column(name = "c_details")
     @Size(max = 1000)
     private String details;
+
+    @Version
+    @Column(name = "c_version")
+    private Integer version;
+
+    public Product(Integer id, String title, String details) {
+        this(id, title, details, null);
+    }
 }
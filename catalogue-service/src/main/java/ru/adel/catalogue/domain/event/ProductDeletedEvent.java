@@ -0,0 +1,4 @@
+package ru.adel.catalogue.domain.event;
+
+public record ProductDeletedEvent(int productId) {
+}
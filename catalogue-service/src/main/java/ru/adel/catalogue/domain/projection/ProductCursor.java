@@ -0,0 +1,29 @@
+package ru.adel.catalogue.domain.projection;
+
+/**
+ * Курсор страницы товаров: id последнего товара, а для поиска по подстроке ещё и похожесть его названия
+ * на фильтр. В заголовке {@code X-Next-Cursor} и параметре {@code after} записывается как
+ * {@code <похожесть>:<id>} или {@code <id>}. Похожесть берётся из самого курсора, поэтому следующая
+ * страница не зависит от того, переименован или удалён товар, на котором закончилась предыдущая.
+ */
+public record ProductCursor(int id, Float similarity) {
+
+    public static final ProductCursor START = new ProductCursor(0, null);
+
+    public static ProductCursor after(ProductView product) {
+        return new ProductCursor(product.id(), product.similarity());
+    }
+
+    public static ProductCursor valueOf(String cursor) {
+        int separator = cursor.indexOf(':');
+        return separator < 0
+                ? new ProductCursor(Integer.parseInt(cursor.strip()), null)
+                : new ProductCursor(Integer.parseInt(cursor.substring(separator + 1).strip()),
+                Float.valueOf(cursor.substring(0, separator)));
+    }
+
+    @Override
+    public String toString() {
+        return this.similarity == null ? String.valueOf(this.id) : this.similarity + ":" + this.id;
+    }
+}
@@ -0,0 +1,34 @@
+package ru.adel.catalogue.domain.projection;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Поля товара, которые клиент может перечислить в параметре {@code fields}. Незапрошенные столбцы
+ * не выбираются из базы. Идентификатор и версия выбираются всегда: на них держатся курсор страниц и ETag.
+ */
+public enum ProductField {
+
+    ID,
+    TITLE,
+    DETAILS;
+
+    public static final Set<ProductField> ALL = Collections.unmodifiableSet(EnumSet.allOf(ProductField.class));
+
+    /**
+     * Запрошенные поля вместе с идентификатором; пустой или отсутствующий список означает все поля.
+     */
+    public static Set<ProductField> requested(Collection<ProductField> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return ALL;
+        }
+        EnumSet<ProductField> requested = EnumSet.of(ID);
+        fields.stream()
+                .filter(Objects::nonNull)
+                .forEach(requested::add);
+        return requested.containsAll(ALL) ? ALL : Collections.unmodifiableSet(requested);
+    }
+}
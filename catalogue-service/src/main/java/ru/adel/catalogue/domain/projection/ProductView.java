@@ -0,0 +1,33 @@
+package ru.adel.catalogue.domain.projection;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.data.annotation.PersistenceCreator;
+
+import java.util.Set;
+
+/**
+ * Незапрошенные через {@link ProductField} поля равны {@code null} и в ответ не попадают. Версия отдаётся всегда:
+ * по ней клиенты узнают, изменился ли товар, не сравнивая его содержимое.
+ * {@code similarity} заполняется только поиском по подстроке и нужна для {@link ProductCursor}.
+ */
+public record ProductView(Integer id,
+                          @JsonInclude(JsonInclude.Include.NON_NULL) String title,
+                          @JsonInclude(JsonInclude.Include.NON_NULL) String details,
+                          @JsonInclude(JsonInclude.Include.NON_NULL) Integer version,
+                          @JsonIgnore Float similarity) {
+
+    // этим конструктором Spring Data собирает проекции производных запросов, где похожести нет
+    @PersistenceCreator
+    public ProductView(Integer id, String title, String details, Integer version) {
+        this(id, title, details, version, null);
+    }
+
+    public ProductView withFields(Set<ProductField> fields) {
+        if (fields.containsAll(ProductField.ALL)) {
+            return this;
+        }
+        return new ProductView(this.id, fields.contains(ProductField.TITLE) ? this.title : null,
+                fields.contains(ProductField.DETAILS) ? this.details : null, this.version, this.similarity);
+    }
+}
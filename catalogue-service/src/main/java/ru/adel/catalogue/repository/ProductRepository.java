@@ -1,11 +1,60 @@
 package ru.adel.catalogue.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.adel.catalogue.domain.entity.Product;
+import ru.adel.catalogue.domain.projection.ProductView;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface ProductRepository extends JpaRepository<Product, Integer> {
+public interface ProductRepository extends JpaRepository<Product, Integer>, ProductViewRepository {
 
-    List<Product> findAllByTitleLikeIgnoreCase(String filter);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    <T> Optional<T> findProductById(int id, Class<T> type);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    <T> List<T> findAllByIdGreaterThanOrderById(int after, Limit limit, Class<T> type);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    <T> List<T> findAllByIdInOrderById(Collection<Integer> ids, Class<T> type);
+
+    /**
+     * Обновляет товар одним запросом и увеличивает его версию.
+     * Если {@code version} не {@code null}, строка обновляется только при совпадении версии.
+     *
+     * @return количество обновлённых строк
+     */
+    @Modifying
+    @Query("""
+            update Product p set p.title = :title, p.details = :details, p.version = p.version + 1
+            where p.id = :id and (:version is null or p.version = :version)""")
+    int updateProduct(@Param("id") int id, @Param("title") String title, @Param("details") String details,
+                      @Param("version") Integer version);
+
+    /**
+     * Удаляет товар одним запросом; при ненулевой {@code version} — только при совпадении версии.
+     *
+     * @return количество удалённых строк
+     */
+    @Modifying
+    @Query("delete from Product p where p.id = :id and (:version is null or p.version = :version)")
+    int deleteProduct(@Param("id") int id, @Param("version") Integer version);
+
+    @Query("select p.id from Product p where p.id in :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    Stream<ProductView> streamAllByOrderById();
 }
@@ -0,0 +1,57 @@
+package ru.adel.catalogue.repository;
+
+import ru.adel.catalogue.domain.projection.ProductCursor;
+import ru.adel.catalogue.domain.projection.ProductField;
+import ru.adel.catalogue.domain.projection.ProductView;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Нативные запросы чтения, результаты которых сразу собираются в {@link ProductView}
+ * без создания управляемых сущностей.
+ */
+public interface ProductViewRepository {
+
+    /**
+     * Поиск по подстроке в названии и описании через триграммные индексы (pg_trgm).
+     * Результаты упорядочены по похожести названия на фильтр, затем по id, и сравниваются с парой
+     * из курсора; у курсора без похожести (его выдаёт режим {@code catalogue.search.mode=index})
+     * она вычисляется по товару с id курсора.
+     */
+    String SEARCH_QUERY = """
+            select p.id, p.c_title as title, p.c_details as details, p.c_version as version,
+                   similarity(p.c_title, :filter) as similarity
+            from catalogue.t_product p
+            where (p.c_title ilike :pattern or p.c_details ilike :pattern)
+              and (:afterId = 0 or (similarity(p.c_title, :filter), -p.id) <
+                   (coalesce(cast(:afterSimilarity as real),
+                             (select similarity(c.c_title, :filter) from catalogue.t_product c where c.id = :afterId)),
+                    -:afterId))
+            order by similarity(p.c_title, :filter) desc, p.id
+            limit :limit""";
+
+
+    String STREAM_FETCH_SIZE = "500";
+
+    List<ProductView> searchProducts(String filter, String pattern, ProductCursor after, int limit);
+
+    /**
+     * Как {@link #searchProducts(String, String, ProductCursor, int)}, но вместо незапрошенных столбцов выбирает
+     * {@code null}.
+     */
+    List<ProductView> searchProducts(String filter, String pattern, ProductCursor after, int limit,
+                                     Set<ProductField> fields);
+
+    List<ProductView> findProducts(int after, int limit, Set<ProductField> fields);
+
+    Optional<ProductView> findProduct(int id, Set<ProductField> fields);
+
+    /**
+     * Потоковая выгрузка найденных товаров в том же порядке, что и у {@link #SEARCH_QUERY}:
+     * по похожести названия на фильтр, затем по id.
+     */
+    Stream<ProductView> streamProducts(String filter, String pattern);
+}
@@ -0,0 +1,103 @@
+package ru.adel.catalogue.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.FlushMode;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import ru.adel.catalogue.domain.projection.ProductCursor;
+import ru.adel.catalogue.domain.projection.ProductField;
+import ru.adel.catalogue.domain.projection.ProductView;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+class ProductViewRepositoryImpl implements ProductViewRepository {
+
+    private static final String STREAM_QUERY = """
+            select p.id, p.c_title as title, p.c_details as details, p.c_version as version
+            from catalogue.t_product p
+            where p.c_title ilike :pattern or p.c_details ilike :pattern
+            order by similarity(p.c_title, :filter) desc, p.id""";
+
+    private static final String PAGE_QUERY = """
+            select p.id, p.c_title as title, p.c_details as details, p.c_version as version
+            from catalogue.t_product p
+            where p.id > :after
+            order by p.id
+            limit :limit""";
+
+    private static final String PRODUCT_QUERY = """
+            select p.id, p.c_title as title, p.c_details as details, p.c_version as version
+            from catalogue.t_product p
+            where p.id = :id""";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<ProductView> searchProducts(String filter, String pattern, ProductCursor after, int limit) {
+        return searchProducts(filter, pattern, after, limit, ProductField.ALL);
+    }
+
+    @Override
+    public List<ProductView> searchProducts(String filter, String pattern, ProductCursor after, int limit,
+                                            Set<ProductField> fields) {
+        return createQuery(select(SEARCH_QUERY, fields))
+                .setParameter("filter", filter)
+                .setParameter("pattern", pattern)
+                .setParameter("afterId", after.id())
+                .setParameter("afterSimilarity", after.similarity(), StandardBasicTypes.FLOAT)
+                .setParameter("limit", limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<ProductView> findProducts(int after, int limit, Set<ProductField> fields) {
+        return createQuery(select(PAGE_QUERY, fields))
+                .setParameter("after", after)
+                .setParameter("limit", limit)
+                .getResultList();
+    }
+
+    @Override
+    public Optional<ProductView> findProduct(int id, Set<ProductField> fields) {
+        return createQuery(select(PRODUCT_QUERY, fields))
+                .setParameter("id", id)
+                .uniqueResultOptional();
+    }
+
+    @Override
+    public Stream<ProductView> streamProducts(String filter, String pattern) {
+        return createQuery(STREAM_QUERY)
+                .setParameter("filter", filter)
+                .setParameter("pattern", pattern)
+                .setFetchSize(Integer.parseInt(STREAM_FETCH_SIZE))
+                .getResultStream();
+    }
+
+    /**
+     * Заменяет незапрошенные столбцы списка выборки на {@code null}: Postgres не читает и не передаёт их значения,
+     * а страница без описания читается из покрывающего индекса {@code idx_product_id_title_version}.
+     */
+    private static String select(String sql, Set<ProductField> fields) {
+        String select = sql;
+        if (!fields.contains(ProductField.TITLE)) {
+            select = select.replace("p.c_title as title", "cast(null as varchar) as title");
+        }
+        if (!fields.contains(ProductField.DETAILS)) {
+            select = select.replace("p.c_details as details", "cast(null as varchar) as details");
+        }
+        return select;
+    }
+
+    @SuppressWarnings("unchecked")
+    private NativeQuery<ProductView> createQuery(String sql) {
+        return ((NativeQuery<ProductView>) this.entityManager.createNativeQuery(sql).unwrap(NativeQuery.class))
+                .setHibernateFlushMode(FlushMode.MANUAL)
+                .setTupleTransformer((tuple, aliases) -> new ProductView((Integer) tuple[0], (String) tuple[1],
+                        (String) tuple[2], (Integer) tuple[3], tuple.length > 4 ? (Float) tuple[4] : null));
+    }
+}
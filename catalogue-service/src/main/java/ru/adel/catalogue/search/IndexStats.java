@@ -0,0 +1,7 @@
+package ru.adel.catalogue.search;
+
+/**
+ * Размер поискового индекса; {@code estimatedBytes} — приблизительная оценка занимаемой кучи.
+ */
+public record IndexStats(int documents, int terms, long postings, long estimatedBytes) {
+}
@@ -0,0 +1,59 @@
+package ru.adel.catalogue.search;
+
+import java.util.Arrays;
+
+/**
+ * Отсортированный по возрастанию список id товаров, содержащих терм.
+ */
+final class PostingList {
+
+    private int[] ids = new int[4];
+
+    private int size;
+
+    void add(int id) {
+        if (this.size == 0 || this.ids[this.size - 1] < id) {
+            ensureCapacity();
+            this.ids[this.size++] = id;
+        } else {
+            int index = Arrays.binarySearch(this.ids, 0, this.size, id);
+            if (index < 0) {
+                int insertionPoint = -index - 1;
+                ensureCapacity();
+                System.arraycopy(this.ids, insertionPoint, this.ids, insertionPoint + 1, this.size - insertionPoint);
+                this.ids[insertionPoint] = id;
+                this.size++;
+            }
+        }
+    }
+
+    void remove(int id) {
+        int index = Arrays.binarySearch(this.ids, 0, this.size, id);
+        if (index >= 0) {
+            System.arraycopy(this.ids, index + 1, this.ids, index, this.size - index - 1);
+            this.size--;
+        }
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    void copyTo(int[] target, int offset) {
+        System.arraycopy(this.ids, 0, target, offset, this.size);
+    }
+
+    long estimatedBytes() {
+        return 32 + 16 + 4L * this.ids.length;
+    }
+
+    private void ensureCapacity() {
+        if (this.size == this.ids.length) {
+            this.ids = Arrays.copyOf(this.ids, this.ids.length * 2);
+        }
+    }
+}
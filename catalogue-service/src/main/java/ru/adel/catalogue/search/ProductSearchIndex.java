@@ -0,0 +1,222 @@
+package ru.adel.catalogue.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Инвертированный индекс по названию и описанию товаров.
+ * <p>
+ * Термы — слова в нижнем регистре с заменой «ё» на «е», списки вхождений — отсортированные массивы id.
+ * Товар подходит под запрос, если для каждого слова запроса в нём есть терм, начинающийся с этого слова.
+ * Результаты упорядочены по id, поэтому постраничный вывод работает с тем же курсором, что и база.
+ * <p>
+ * Индекс хранит только термы товаров, а не их названия и описания: поиск отдаёт id, сами товары читаются
+ * из базы по первичному ключу. Размер индекса пересчитывается при каждом изменении, поэтому {@link #stats()}
+ * не обходит индекс.
+ */
+public class ProductSearchIndex {
+
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int[] EMPTY = new int[0];
+
+    private static final long TREE_ENTRY_BYTES = 40;
+
+    private static final long HASH_ENTRY_BYTES = 32 + 16;
+
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+
+    private final Map<Integer, String[]> documents = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long postingsCount;
+
+    private long estimatedBytes;
+
+    public void put(int productId, String title, String details) {
+        Set<String> terms = new LinkedHashSet<>();
+        tokenize(title, terms);
+        tokenize(details, terms);
+
+        this.lock.writeLock().lock();
+        try {
+            String[] previous = this.documents.get(productId);
+            if (previous != null) {
+                removePostings(productId, previous);
+                this.estimatedBytes -= documentBytes(previous);
+            }
+            String[] documentTerms = new String[terms.size()];
+            int i = 0;
+            for (String term : terms) {
+                PostingList postingList = this.postings.get(term);
+                if (postingList == null) {
+                    postingList = new PostingList();
+                    this.postings.put(term, postingList);
+                    this.estimatedBytes += TREE_ENTRY_BYTES + stringBytes(term) + postingList.estimatedBytes();
+                } else {
+                    term = this.postings.ceilingKey(term);
+                }
+                long postingListBytes = postingList.estimatedBytes();
+                int size = postingList.size();
+                postingList.add(productId);
+                this.estimatedBytes += postingList.estimatedBytes() - postingListBytes;
+                this.postingsCount += postingList.size() - size;
+                documentTerms[i++] = term;
+            }
+            this.documents.put(productId, documentTerms);
+            this.estimatedBytes += documentBytes(documentTerms);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int productId) {
+        this.lock.writeLock().lock();
+        try {
+            String[] previous = this.documents.remove(productId);
+            if (previous != null) {
+                removePostings(productId, previous);
+                this.estimatedBytes -= documentBytes(previous);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Id подходящих под запрос товаров после {@code after}, не больше {@code limit}.
+     */
+    public List<Integer> search(String query, int after, int limit) {
+        Set<String> tokens = new LinkedHashSet<>();
+        tokenize(query, tokens);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        this.lock.readLock().lock();
+        try {
+            int[] matches = null;
+            for (String token : tokens) {
+                int[] tokenMatches = union(this.postings
+                        .subMap(token, true, token + Character.MAX_VALUE, false)
+                        .values());
+                matches = matches == null ? tokenMatches : intersect(matches, tokenMatches);
+                if (matches.length == 0) {
+                    return List.of();
+                }
+            }
+
+            int from = Arrays.binarySearch(matches, after);
+            from = from >= 0 ? from + 1 : -from - 1;
+            List<Integer> productIds = new ArrayList<>(Math.min(limit, matches.length - from));
+            for (int i = from; i < matches.length && productIds.size() < limit; i++) {
+                productIds.add(matches[i]);
+            }
+            return productIds;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public IndexStats stats() {
+        this.lock.readLock().lock();
+        try {
+            return new IndexStats(this.documents.size(), this.postings.size(), this.postingsCount,
+                    this.estimatedBytes);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+
+    // массив термов ссылается на ключи postings, поэтому сами строки учтены там
+    private static long documentBytes(String[] terms) {
+        return HASH_ENTRY_BYTES + 16 + 4L * terms.length;
+    }
+
+    private void removePostings(int productId, String[] terms) {
+        for (String term : terms) {
+            PostingList postingList = this.postings.get(term);
+            int size = postingList.size();
+            postingList.remove(productId);
+            this.postingsCount -= size - postingList.size();
+            if (postingList.isEmpty()) {
+                this.postings.remove(term);
+                this.estimatedBytes -= TREE_ENTRY_BYTES + stringBytes(term) + postingList.estimatedBytes();
+            }
+        }
+    }
+
+    static void tokenize(String text, Collection<String> target) {
+        if (text == null) {
+            return;
+        }
+        for (String token : SEPARATOR.split(text.toLowerCase(Locale.ROOT).replace('ё', 'е'))) {
+            if (!token.isEmpty()) {
+                target.add(token);
+            }
+        }
+    }
+
+    private static int[] union(Collection<PostingList> postingLists) {
+        if (postingLists.isEmpty()) {
+            return EMPTY;
+        }
+        int total = 0;
+        for (PostingList postingList : postingLists) {
+            total += postingList.size();
+        }
+        int[] ids = new int[total];
+        int offset = 0;
+        for (PostingList postingList : postingLists) {
+            postingList.copyTo(ids, offset);
+            offset += postingList.size();
+        }
+        if (postingLists.size() == 1) {
+            return ids;
+        }
+        Arrays.sort(ids);
+        int unique = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (unique == 0 || ids[unique - 1] != ids[i]) {
+                ids[unique++] = ids[i];
+            }
+        }
+        return unique == ids.length ? ids : Arrays.copyOf(ids, unique);
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        int[] result = new int[Math.min(left.length, right.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+}
@@ -1,14 +1,32 @@
 package ru.adel.catalogue.service;
 
+import ru.adel.catalogue.config.CacheConfig;
 import ru.adel.catalogue.domain.entity.Product;
+import ru.adel.catalogue.domain.event.ProductDeletedEvent;
+import ru.adel.catalogue.domain.event.ProductSavedEvent;
+import ru.adel.catalogue.domain.projection.ProductCursor;
+import ru.adel.catalogue.domain.projection.ProductField;
+import ru.adel.catalogue.domain.projection.ProductView;
 import ru.adel.catalogue.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -16,41 +34,142 @@ public class DefaultProductService implements ProductService {
 
     private final ProductRepository productRepository;
 
+    private final ApplicationEventPublisher eventPublisher;
+
     @Override
-    public List<Product> findAllProducts(String filter) {
+    @Transactional(readOnly = true)
+    public List<ProductView> findAllProducts(String filter, ProductCursor after, int limit) {
+        return findAllProducts(filter, after, limit, ProductField.ALL);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductView> findAllProducts(String filter, ProductCursor after, int limit,
+                                             Set<ProductField> fields) {
         if (filter != null && !filter.isBlank()) {
-            return this.productRepository.findAllByTitleLikeIgnoreCase("%" + filter + "%");
+            return this.productRepository.searchProducts(filter, "%" + filter + "%", after, limit, fields);
+        } else if (fields.containsAll(ProductField.ALL)) {
+            return this.productRepository.findAllByIdGreaterThanOrderById(after.id(), Limit.of(limit),
+                    ProductView.class);
         } else {
-            return this.productRepository.findAll();
+            return this.productRepository.findProducts(after.id(), limit, fields);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProducts(String filter, Consumer<ProductView> consumer) {
+        try (Stream<ProductView> products = filter != null && !filter.isBlank()
+                ? this.productRepository.streamProducts(filter, "%" + filter + "%")
+                : this.productRepository.streamAllByOrderById()) {
+            products.forEach(consumer);
         }
     }
 
     @Override
     @Transactional
     public Product createProduct(String title, String details) {
-        return this.productRepository.save(new Product(null, title, details));
+        Product product = this.productRepository.save(new Product(null, title, details));
+        this.eventPublisher.publishEvent(new ProductSavedEvent(product.getId(), title, details));
+        return product;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, unless = "#result == null")
+    public Optional<ProductView> findProduct(int productId) {
+        return this.productRepository.findProductById(productId, ProductView.class);
+    }
+
+    /**
+     * Кэшируются только полные товары, под тем же ключом, что и в {@link #findProduct(int)}.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#productId",
+            condition = "#fields.containsAll(T(ru.adel.catalogue.domain.projection.ProductField).ALL)",
+            unless = "#result == null")
+    public Optional<ProductView> findProduct(int productId, Set<ProductField> fields) {
+        if (fields.containsAll(ProductField.ALL)) {
+            return this.productRepository.findProductById(productId, ProductView.class);
+        } else {
+            return this.productRepository.findProduct(productId, fields);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductView> findProducts(Collection<Integer> productIds) {
+        return this.productRepository.findAllByIdInOrderById(productIds, ProductView.class);
+    }
+
+    @Override
+    @Transactional
+    public void updateProduct(Integer id, String title, String details, Integer expectedVersion) {
+        if (this.productRepository.updateProduct(id, title, details, expectedVersion) == 0) {
+            throw productNotChanged(id, expectedVersion);
+        }
+        this.eventPublisher.publishEvent(new ProductSavedEvent(id, title, details));
+    }
+
+    @Override
+    @Transactional
+    public void deleteProduct(Integer id, Integer expectedVersion) {
+        if (this.productRepository.deleteProduct(id, expectedVersion) == 0) {
+            throw productNotChanged(id, expectedVersion);
+        }
+        this.eventPublisher.publishEvent(new ProductDeletedEvent(id));
     }
 
     @Override
-    public Optional<Product> findProduct(int productId) {
-        return this.productRepository.findById(productId);
+    @Transactional
+    public List<Product> createProducts(List<Product> products) {
+        List<Product> createdProducts = this.productRepository.saveAll(products);
+        createdProducts.forEach(product -> this.eventPublisher.publishEvent(
+                new ProductSavedEvent(product.getId(), product.getTitle(), product.getDetails())));
+        return createdProducts;
     }
 
     @Override
     @Transactional
-    public void updateProduct(Integer id, String title, String details) {
-        this.productRepository.findById(id)
-                .ifPresentOrElse(product -> {
-                    product.setTitle(title);
-                    product.setDetails(details);
-                }, () -> {
-                    throw new NoSuchElementException();
-                });
+    public Set<Integer> updateProducts(List<Product> products) {
+        if (products.isEmpty()) {
+            return Set.of();
+        }
+        Map<Integer, Product> existingProducts = this.productRepository
+                .findAllById(products.stream().map(Product::getId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Set<Integer> updatedIds = new HashSet<>();
+        for (Product product : products) {
+            Product existingProduct = existingProducts.get(product.getId());
+            if (existingProduct != null) {
+                existingProduct.setTitle(product.getTitle());
+                existingProduct.setDetails(product.getDetails());
+                updatedIds.add(product.getId());
+                this.eventPublisher.publishEvent(
+                        new ProductSavedEvent(product.getId(), product.getTitle(), product.getDetails()));
+            }
+        }
+        return updatedIds;
     }
 
     @Override
     @Transactional
-    public void deleteProduct(Integer id) {
-        this.productRepository.deleteById(id);
+    public Set<Integer> deleteProducts(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        List<Integer> existingIds = this.productRepository.findExistingIds(ids);
+        this.productRepository.deleteAllByIdInBatch(existingIds);
+        existingIds.forEach(id -> this.eventPublisher.publishEvent(new ProductDeletedEvent(id)));
+        return new HashSet<>(existingIds);
+    }
+
+    private RuntimeException productNotChanged(Integer id, Integer expectedVersion) {
+        if (expectedVersion != null && this.productRepository.existsById(id)) {
+            return new OptimisticLockingFailureException("catalogue.errors.product.precondition_failed");
+        }
+        return new NoSuchElementException("catalogue.errors.product.not_found");
     }
 }
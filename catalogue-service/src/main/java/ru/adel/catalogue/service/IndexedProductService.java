@@ -0,0 +1,176 @@
+package ru.adel.catalogue.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.adel.catalogue.domain.entity.Product;
+import ru.adel.catalogue.domain.event.ProductDeletedEvent;
+import ru.adel.catalogue.domain.event.ProductSavedEvent;
+import ru.adel.catalogue.domain.projection.ProductCursor;
+import ru.adel.catalogue.domain.projection.ProductField;
+import ru.adel.catalogue.domain.projection.ProductView;
+import ru.adel.catalogue.repository.ProductRepository;
+import ru.adel.catalogue.search.IndexStats;
+import ru.adel.catalogue.search.ProductSearchIndex;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Режим поиска {@code catalogue.search.mode=index}: фильтрованные списки и выгрузки товаров отдаются
+ * из {@link ProductSearchIndex} в памяти в порядке id, остальные операции выполняет {@link DefaultProductService}.
+ * Индекс строится при старте и обновляется после фиксации транзакций, изменивших товары; найденные в нём
+ * товары читаются из базы по id. Размер индекса публикуется в метриках {@code catalogue.search.index.*}.
+ */
+@Slf4j
+@Primary
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "catalogue.search.mode", havingValue = "index")
+public class IndexedProductService implements ProductService {
+
+    private static final int BUILD_BATCH_SIZE = 1000;
+
+    private static final int EXPORT_BATCH_SIZE = 500;
+
+    private final DefaultProductService productService;
+
+    private final ProductRepository productRepository;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ProductSearchIndex searchIndex = new ProductSearchIndex();
+
+    @PostConstruct
+    public void buildIndex() {
+        long start = System.nanoTime();
+        int after = 0;
+        List<ProductView> batch;
+        do {
+            batch = this.productRepository.findAllByIdGreaterThanOrderById(after, Limit.of(BUILD_BATCH_SIZE),
+                    ProductView.class);
+            for (ProductView product : batch) {
+                this.searchIndex.put(product.id(), product.title(), product.details());
+                after = product.id();
+            }
+        } while (batch.size() == BUILD_BATCH_SIZE);
+
+        IndexStats stats = this.searchIndex.stats();
+        log.info("Поисковый индекс построен за {} мс: товаров {}, термов {}, вхождений {}, ~{} КБ",
+                (System.nanoTime() - start) / 1_000_000, stats.documents(), stats.terms(), stats.postings(),
+                stats.estimatedBytes() / 1024);
+
+        Gauge.builder("catalogue.search.index.documents", this.searchIndex, index -> index.stats().documents())
+                .register(this.meterRegistry);
+        Gauge.builder("catalogue.search.index.terms", this.searchIndex, index -> index.stats().terms())
+                .register(this.meterRegistry);
+        Gauge.builder("catalogue.search.index.postings", this.searchIndex, index -> index.stats().postings())
+                .register(this.meterRegistry);
+        Gauge.builder("catalogue.search.index.size", this.searchIndex, index -> index.stats().estimatedBytes())
+                .baseUnit("bytes")
+                .register(this.meterRegistry);
+    }
+
+    @TransactionalEventListener
+    public void onProductSaved(ProductSavedEvent event) {
+        this.searchIndex.put(event.productId(), event.title(), event.details());
+    }
+
+    @TransactionalEventListener
+    public void onProductDeleted(ProductDeletedEvent event) {
+        this.searchIndex.remove(event.productId());
+    }
+
+    @Override
+    public List<ProductView> findAllProducts(String filter, ProductCursor after, int limit) {
+        return findAllProducts(filter, after, limit, ProductField.ALL);
+    }
+
+    @Override
+    public List<ProductView> findAllProducts(String filter, ProductCursor after, int limit,
+                                             Set<ProductField> fields) {
+        if (filter != null && !filter.isBlank()) {
+            List<Integer> productIds = this.searchIndex.search(filter, after.id(), limit);
+            if (productIds.isEmpty()) {
+                return List.of();
+            }
+            return this.productService.findProducts(productIds).stream()
+                    .map(product -> product.withFields(fields))
+                    .toList();
+        } else {
+            return this.productService.findAllProducts(filter, after, limit, fields);
+        }
+    }
+
+    @Override
+    public void exportProducts(String filter, Consumer<ProductView> consumer) {
+        if (filter != null && !filter.isBlank()) {
+            int after = 0;
+            List<Integer> productIds;
+            do {
+                productIds = this.searchIndex.search(filter, after, EXPORT_BATCH_SIZE);
+                if (!productIds.isEmpty()) {
+                    this.productService.findProducts(productIds).forEach(consumer);
+                    after = productIds.get(productIds.size() - 1);
+                }
+            } while (productIds.size() == EXPORT_BATCH_SIZE);
+        } else {
+            this.productService.exportProducts(filter, consumer);
+        }
+    }
+
+    @Override
+    public Product createProduct(String title, String details) {
+        return this.productService.createProduct(title, details);
+    }
+
+    @Override
+    public Optional<ProductView> findProduct(int productId) {
+        return this.productService.findProduct(productId);
+    }
+
+    @Override
+    public Optional<ProductView> findProduct(int productId, Set<ProductField> fields) {
+        return this.productService.findProduct(productId, fields);
+    }
+
+    @Override
+    public List<ProductView> findProducts(Collection<Integer> productIds) {
+        return this.productService.findProducts(productIds);
+    }
+
+    @Override
+    public void updateProduct(Integer id, String title, String details, Integer expectedVersion) {
+        this.productService.updateProduct(id, title, details, expectedVersion);
+    }
+
+    @Override
+    public void deleteProduct(Integer id, Integer expectedVersion) {
+        this.productService.deleteProduct(id, expectedVersion);
+    }
+
+    @Override
+    public List<Product> createProducts(List<Product> products) {
+        return this.productService.createProducts(products);
+    }
+
+    @Override
+    public Set<Integer> updateProducts(List<Product> products) {
+        return this.productService.updateProducts(products);
+    }
+
+    @Override
+    public Set<Integer> deleteProducts(Collection<Integer> ids) {
+        return this.productService.deleteProducts(ids);
+    }
+}
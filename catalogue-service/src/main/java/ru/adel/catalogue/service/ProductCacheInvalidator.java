@@ -0,0 +1,39 @@
+package ru.adel.catalogue.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.adel.catalogue.config.CacheConfig;
+import ru.adel.catalogue.domain.event.ProductDeletedEvent;
+import ru.adel.catalogue.domain.event.ProductSavedEvent;
+
+/**
+ * Сбрасывает закэшированный товар по завершении транзакции, которая его изменила.
+ * Сброс выполняется и при откате: в кэше мог остаться экземпляр, изменённый внутри транзакции.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onProductSaved(ProductSavedEvent event) {
+        evict(event.productId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onProductDeleted(ProductDeletedEvent event) {
+        evict(event.productId());
+    }
+
+    private void evict(int productId) {
+        Cache cache = this.cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        if (cache != null) {
+            cache.evict(productId);
+        }
+    }
+}
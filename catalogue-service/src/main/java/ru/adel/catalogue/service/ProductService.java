@@ -1,18 +1,47 @@
 package ru.adel.catalogue.service;
 
 import ru.adel.catalogue.domain.entity.Product;
+import ru.adel.catalogue.domain.projection.ProductCursor;
+import ru.adel.catalogue.domain.projection.ProductField;
+import ru.adel.catalogue.domain.projection.ProductView;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface ProductService {
 
-    Iterable<Product> findAllProducts(String filter);
+    List<ProductView> findAllProducts(String filter, ProductCursor after, int limit);
+
+    /**
+     * Как {@link #findAllProducts(String, ProductCursor, int)}, но незапрошенные поля не читаются из базы
+     * и равны {@code null}.
+     */
+    List<ProductView> findAllProducts(String filter, ProductCursor after, int limit, Set<ProductField> fields);
+
+    /**
+     * Передаёт {@code consumer} все товары, подходящие под фильтр, в том же порядке, в каком их отдаёт
+     * постраничный {@link #findAllProducts(String, ProductCursor, int)}.
+     */
+    void exportProducts(String filter, Consumer<ProductView> consumer);
 
     Product createProduct(String title, String details);
 
-    Optional<Product> findProduct(int productId);
+    Optional<ProductView> findProduct(int productId);
+
+    Optional<ProductView> findProduct(int productId, Set<ProductField> fields);
+
+    List<ProductView> findProducts(Collection<Integer> productIds);
+
+    void updateProduct(Integer id, String title, String details, Integer expectedVersion);
+
+    void deleteProduct(Integer id, Integer expectedVersion);
+
+    List<Product> createProducts(List<Product> products);
 
-    void updateProduct(Integer id, String title, String details);
+    Set<Integer> updateProducts(List<Product> products);
 
-    void deleteProduct(Integer id);
+    Set<Integer> deleteProducts(Collection<Integer> ids);
 }
@@ -0,0 +1 @@
+create index idx_product_id_title_version on catalogue.t_product (id) include (c_title, c_version);
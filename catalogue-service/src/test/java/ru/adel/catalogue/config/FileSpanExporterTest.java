@@ -0,0 +1,101 @@
+package ru.adel.catalogue.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSpanExporterTest {
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void export_RequestContinuesRemoteTrace_WritesRemoteParentAndServiceName(@TempDir Path directory)
+            throws Exception {
+        // given
+        Path file = directory.resolve("spans/catalogue-service.jsonl");
+        SdkTracerProvider tracerProvider = tracerProvider(file);
+        Tracer tracer = tracerProvider.get("test");
+        SpanContext managerCall = SpanContext.createFromRemoteParent("0af7651916cd43dd8448eb211c80319c",
+                "b7ad6b7169203331", TraceFlags.getSampled(), TraceState.getDefault());
+
+        // when
+        Span request = tracer.spanBuilder("http get /catalogue-api/products/{productId:\\d+}")
+                .setSpanKind(SpanKind.SERVER)
+                .setParent(Context.root().with(Span.wrap(managerCall)))
+                .startSpan();
+        try (Scope ignored = request.makeCurrent()) {
+            tracer.spanBuilder("query").setSpanKind(SpanKind.CLIENT)
+                    .setAttribute("jdbc.query[0]", "select * from catalogue.t_product where id=?")
+                    .startSpan()
+                    .end();
+        } finally {
+            request.end();
+        }
+        tracerProvider.shutdown();
+
+        // then
+        List<JsonNode> spans = readSpans(file);
+        assertEquals(2, spans.size());
+        JsonNode query = spans.get(0);
+        JsonNode server = spans.get(1);
+        assertEquals("SERVER", server.get("kind").asText());
+        assertEquals("b7ad6b7169203331", server.get("parentSpanId").asText());
+        assertEquals("0af7651916cd43dd8448eb211c80319c", server.get("traceId").asText());
+        assertEquals("catalogue-service", server.get("service").asText());
+        assertEquals(server.get("spanId").asText(), query.get("parentSpanId").asText());
+        assertTrue(query.get("attributes").get("jdbc.query[0]").asText().contains("t_product"));
+    }
+
+    @Test
+    void export_FileAlreadyHasSpans_AppendsAfterThem(@TempDir Path directory) throws Exception {
+        // given
+        Path file = directory.resolve("catalogue-service.jsonl");
+        SdkTracerProvider previousRun = tracerProvider(file);
+        previousRun.get("test").spanBuilder("before restart").startSpan().end();
+        previousRun.shutdown();
+        SdkTracerProvider tracerProvider = tracerProvider(file);
+
+        // when
+        tracerProvider.get("test").spanBuilder("after restart").startSpan().end();
+        tracerProvider.shutdown();
+
+        // then
+        assertEquals(List.of("before restart", "after restart"), readSpans(file).stream()
+                .map(span -> span.get("name").asText())
+                .toList());
+    }
+
+    private SdkTracerProvider tracerProvider(Path file) throws Exception {
+        return SdkTracerProvider.builder()
+                .setResource(Resource.create(Attributes.builder()
+                        .put("service.name", "catalogue-service")
+                        .build()))
+                .addSpanProcessor(SimpleSpanProcessor.create(new FileSpanExporter(file, this.objectMapper)))
+                .build();
+    }
+
+    private List<JsonNode> readSpans(Path file) throws Exception {
+        return Files.readAllLines(file).stream()
+                .map(line -> assertDoesNotThrow(() -> this.objectMapper.readTree(line)))
+                .toList();
+    }
+}
@@ -0,0 +1,59 @@
+package ru.adel.catalogue.config;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=prometheus",
+        "management.metrics.distribution.percentiles-histogram.http.server.requests=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@Transactional
+class MetricsConfigTestIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @SneakyThrows
+    @Test
+    @Sql("/sql/products.sql")
+    void scrape_ProductWasRequested_ReturnsEndpointHibernatePoolAndJvmMetrics() {
+        // given
+        mockMvc.perform(MockMvcRequestBuilders.get("/catalogue-api/products/1")
+                        .with(jwt().jwt(jwt -> jwt.claim("scope", "view_catalogue"))))
+                .andExpect(status().isOk());
+
+        // when
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus")
+                        .with(jwt().jwt(jwt -> jwt.claim("scope", "view_catalogue"))))
+                // then
+                .andExpectAll(
+                        status().isOk(),
+                        content().string(allOf(
+                                matchesPattern("(?s).*http_server_requests_seconds_bucket\\{[^}]*"
+                                               + "operation=\"ProductRestController.findProduct\""
+                                               + "[^}]*outcome=\"SUCCESS\".*"),
+                                containsString("hibernate_query_executions_total"),
+                                containsString("hibernate_entities_loads_total"),
+                                containsString("hibernate_flushes_total"),
+                                containsString("hikaricp_connections_active"),
+                                containsString("jvm_gc_max_data_size_bytes"))));
+    }
+}
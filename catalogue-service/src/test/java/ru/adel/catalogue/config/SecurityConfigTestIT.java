@@ -0,0 +1,59 @@
+package ru.adel.catalogue.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "management.server.port=0",
+        "management.endpoints.web.exposure.include=health,metrics,prometheus"
+})
+@AutoConfigureObservability(tracing = false)
+class SecurityConfigTestIT {
+
+    @LocalServerPort
+    int serverPort;
+
+    @LocalManagementPort
+    int managementPort;
+
+    RestClient restClient = RestClient.builder()
+            .requestFactory(new JdkClientHttpRequestFactory())
+            .build();
+
+    @Test
+    void scrape_ManagementPort_ReturnsMetricsWithoutAuthentication() {
+        // when
+        HttpStatusCode prometheus = status(this.managementPort, "/actuator/prometheus");
+        HttpStatusCode health = status(this.managementPort, "/actuator/health");
+        HttpStatusCode metrics = status(this.managementPort, "/actuator/metrics");
+
+        // then
+        assertEquals(HttpStatus.OK, prometheus);
+        assertEquals(HttpStatus.OK, health);
+        assertEquals(HttpStatus.UNAUTHORIZED, metrics);
+    }
+
+    @Test
+    void scrape_ServerPort_RequiresAuthentication() {
+        // when
+        HttpStatusCode prometheus = status(this.serverPort, "/actuator/prometheus");
+
+        // then
+        assertEquals(HttpStatus.UNAUTHORIZED, prometheus);
+    }
+
+    private HttpStatusCode status(int port, String path) {
+        return this.restClient.get()
+                .uri("http://localhost:%d%s".formatted(port, path))
+                .exchange((request, response) -> response.getStatusCode());
+    }
+}
@@ -7,6 +7,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.MessageSource;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
@@ -15,7 +16,8 @@ import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.validation.MapBindingResult;
 import ru.adel.catalogue.controller.payload.UpdateProductDto;
-import ru.adel.catalogue.domain.entity.Product;
+import ru.adel.catalogue.domain.projection.ProductField;
+import ru.adel.catalogue.domain.projection.ProductView;
 import ru.adel.catalogue.service.ProductService;
 
 import java.util.*;
@@ -37,42 +39,74 @@ class ProductRestControllerTest {
 
 
     @Test
-    void getProduct_ProductExist_ReturnsProduct() {
+    void findProduct_ProductExist_ReturnsProductWithETag() {
         // given
-        Product product = new Product(1, "Название товара", "Описание товара");
+        ProductView product = new ProductView(1, "Название товара", "Описание товара", 2);
+        when(productService.findProduct(1, ProductField.ALL)).thenReturn(Optional.of(product));
+
         // when
-        when(productService.findProduct(1)).thenReturn(Optional.of(product));
+        ResponseEntity<ProductView> result = productRestController.findProduct(1, null);
+
+        // then
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals("\"2\"", result.getHeaders().getETag());
+        assertEquals(product, result.getBody());
+    }
+
+    @Test
+    void findProduct_FieldsAreDetails_ReturnsETagWithFields() {
+        // given
+        ProductView product = new ProductView(1, null, "Описание товара", 2);
+        when(productService.findProduct(1, Set.of(ProductField.ID, ProductField.DETAILS)))
+                .thenReturn(Optional.of(product));
 
-        Product product1 = productRestController.getProduct(1);
-        //then
-        assertEquals(product1, product);
+        // when
+        ResponseEntity<ProductView> result = productRestController.findProduct(1, Set.of(ProductField.DETAILS));
 
+        // then
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals("\"2-id,details\"", result.getHeaders().getETag());
+        assertEquals(product, result.getBody());
     }
 
     @Test
-    void getProduct_ProductDoesNotExist_TrowsNoSuchElementException() {
+    void findProduct_ProductDoesNotExist_TrowsNoSuchElementException() {
         NoSuchElementException noSuchElementException = assertThrows(NoSuchElementException.class,
-                () -> productRestController.getProduct(1));
+                () -> productRestController.findProduct(1, null));
         assertEquals("catalogue.errors.product.not_found", noSuchElementException.getMessage());
     }
 
+    @SneakyThrows
     @Test
-    void findProduct_ProductExist_ReturnsProduct() {
-        Product product = new Product(1, "Название товара", "Описание товара");
-        Product product1 = productRestController.findProduct(product);
-        assertEquals(product1, product);
+    void updateProduct_RequestIsValid_ReturnsNoContent() {
+        UpdateProductDto payload = new UpdateProductDto("Новое название", "Новое описание");
+        BindingResult bindingResult = new MapBindingResult(Map.of(), "payload");
+
+        ResponseEntity<?> response = productRestController.updateProduct(1, payload, bindingResult, null);
+        assertNotNull(response);
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        verify(productService).updateProduct(1, "Новое название", "Новое описание", null);
     }
 
     @SneakyThrows
     @Test
-    void updateProduct_RequestIsValid_ReturnsNoContent() {
+    void updateProduct_IfMatchIsPresent_PassesExpectedVersion() {
         UpdateProductDto payload = new UpdateProductDto("Новое название", "Новое описание");
         BindingResult bindingResult = new MapBindingResult(Map.of(), "payload");
 
-        ResponseEntity<?> response = productRestController.updateProduct(1, payload, bindingResult);
-        assertNotNull(response);
+        ResponseEntity<?> response = productRestController.updateProduct(1, payload, bindingResult, "\"3\"");
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
-        verify(productService).updateProduct(1, "Новое название", "Новое описание");
+        verify(productService).updateProduct(1, "Новое название", "Новое описание", 3);
+    }
+
+    @Test
+    void updateProduct_IfMatchIsWeak_ThrowsOptimisticLockingFailureException() {
+        UpdateProductDto payload = new UpdateProductDto("Новое название", "Новое описание");
+        BindingResult bindingResult = new MapBindingResult(Map.of(), "payload");
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> productRestController.updateProduct(1, payload, bindingResult, "W/\"3\""));
+        verifyNoInteractions(this.productService);
     }
 
     @Test
@@ -83,7 +117,7 @@ class ProductRestControllerTest {
         bindingResult.addError(new FieldError("payload", "title", "error"));
 
         // when
-        var exception = assertThrows(BindException.class, () -> productRestController.updateProduct(1, payload, bindingResult));
+        var exception = assertThrows(BindException.class, () -> productRestController.updateProduct(1, payload, bindingResult, null));
 
         // then
         assertEquals(List.of(new FieldError("payload", "title", "error")), exception.getAllErrors());
@@ -95,12 +129,29 @@ class ProductRestControllerTest {
         // given
 
         // when
-        ResponseEntity<Void> result = productRestController.deleteProduct(1);
+        ResponseEntity<Void> result = productRestController.deleteProduct(1, "*");
         // then
         assertEquals(HttpStatus.NO_CONTENT, result.getStatusCode());
         assertNotNull(result);
-        verify(productService).deleteProduct(1);
+        verify(productService).deleteProduct(1, null);
+
+    }
+
+    @Test
+    void handleOptimisticLockingFailureException_ReturnsPreconditionFailed() {
+        // given
+        Locale locale = Locale.forLanguageTag("ru");
+
+        doReturn("error details").when(this.messageSource)
+                .getMessage("catalogue.errors.product.precondition_failed", new Object[0],
+                        "catalogue.errors.product.precondition_failed", locale);
 
+        // when
+        ResponseEntity<ProblemDetail> result = productRestController.handleOptimisticLockingFailureException(locale);
+
+        // then
+        assertEquals(HttpStatus.PRECONDITION_FAILED, result.getStatusCode());
+        assertEquals("error details", result.getBody().getDetail());
     }
     @Test
     void handleNoSuchElementException_ReturnsNotFound() {
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
@@ -17,6 +18,7 @@ import java.util.Locale;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -42,12 +44,200 @@ class ProductRestControllerTestIT {
                 // then
                 .andDo(print())
                 .andExpectAll(status().isOk(),
+                        header().string(HttpHeaders.ETAG, "\"0\""),
                         content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON),
                         content().json("""
                                 {"id": 1 ,"title": "Название товара 1","details": "Описание товара 1"}
                                 """));
     }
 
+    @SneakyThrows
+    @Test
+    @Sql("/sql/products.sql")
+    void findProduct_FieldsAreTitle_ReturnsProductWithoutDetails() {
+        // given
+        MockHttpServletRequestBuilder requestBuilder =
+                MockMvcRequestBuilders.get("/catalogue-api/products/1")
+                        .param("fields", "title")
+                        .with(jwt().jwt(jwt -> jwt.claim("scope", "view_catalogue")));
+
+        //when
+        mockMvc.perform(requestBuilder)
+                // then
+                .andDo(print())
+                .andExpectAll(status().isOk(),
+                        header().string(HttpHeaders.ETAG, "\"0-id,title\""),
+                        content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON),
+                        content().json("""
+                                {"id": 1 ,"title": "Название товара 1", "version": 0}
+                                """, true));
+    }
+
+    @SneakyThrows
+    @Test
+    @Sql("/sql/products.sql")
+    void findProduct_IfNoneMatchIsTagOfFullProductAndFieldsAreTitle_ReturnsProduct() {
+        // given
+        MockHttpServletRequestBuilder requestBuilder =
+                MockMvcRequestBuilders.get("/catalogue-api/products/1")
+                        .param("fields", "id,title")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                        .with(jwt().jwt(jwt -> jwt.claim("scope", "view_catalogue")));
+
+        //when
+        mockMvc.perform(requestBuilder)
+                // then
+                .andDo(print())
+                .andExpectAll(status().isOk(),
+                        header().string(HttpHeaders.ETAG, "\"0-id,title\""),
+                        content().json("""
+                                {"id": 1 ,"title": "Название товара 1", "version": 0}
+                                """, true));
+    }
+
+    @SneakyThrows
+    @Test
+    @Sql("/sql/products.sql")
+    void findProduct_IfNoneMatchIsTagOfSparseProduct_ReturnsFullProduct() {
+        // given
+        MockHttpServletRequestBuilder requestBuilder =
+                MockMvcRequestBuilders.get("/catalogue-api/products/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0-id,title\"")
+                        .with(jwt().jwt(jwt -> jwt.claim("scope", "view_catalogue")));
+
+        //when
+        mockMvc.perform(requestBuilder)
+                // then
+                .andDo(print())
+                .andExpectAll(status().isOk(),
+                        header().string(HttpHeaders.ETAG, "\"0\""),
+                        content().json("""
+                                {"id": 1 ,"title": "Название товара 1","details": "Описание товара 1"}
+                                """));
+    }
+
+    @SneakyThrows
+    @Test
+    @Sql("/sql/products.sql")
+    void findProduct_IfNoneMatchIsTagOfSameFields_ReturnsNotModified() {
+        // given
+        MockHttpServletRequestBuilder requestBuilder =
+                MockMvcRequestBuilders.get("/catalogue-api/products/1")
+                        .param("fields", "title")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0-id,title\"")
+                        .with(jwt().jwt(jwt -> jwt.claim("scope", "view_catalogue")));
+
+        //when
+        mockMvc.perform(requestBuilder)
+                // then
+                .andDo(print())
+                .andExpectAll(status().isNotModified(),
+                        content().string(""));
+    }
+
+    @SneakyThrows
+    @Test
+    @Sql("/sql/products.sql")
+    void findProduct_IfNoneMatchIsCurrent_ReturnsNotModified() {
+        // given
+        MockHttpServletRequestBuilder requestBuilder =
+                MockMvcRequestBuilders.get("/catalogue-api/products/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                        .with(jwt().jwt(jwt -> jwt.claim("scope", "view_catalogue")));
+
+        //when
+        mockMvc.perform(requestBuilder)
+                // then
+                .andDo(print())
+                .andExpectAll(status().isNotModified(),
+                        header().string(HttpHeaders.ETAG, "\"0\""),
+                        content().string(""));
+    }
+
+    @SneakyThrows
+    @Test
+    @Sql("/sql/products.sql")
+    void updateProduct_IfMatchIsStale_ReturnPreconditionFailed() {
+        // given
+        MockHttpServletRequestBuilder requestBuilder =
+                MockMvcRequestBuilders.patch("/catalogue-api/products/1")
+                        .header(HttpHeaders.IF_MATCH, "\"5\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title": "Молоко","details":"Молоко вкусное"}
+                                """)
+                        .with(jwt().jwt(jwt -> jwt.claim("scope", "edit_catalogue")));
+
+        // when
+        mockMvc.perform(requestBuilder)
+                // then
+                .andDo(print())
+                .andExpectAll(status().isPreconditionFailed());
+    }
+
+    @SneakyThrows
+    @Test
+    @Sql("/sql/products.sql")
+    void updateProduct_IfMatchIsCurrent_IncrementsVersion() {
+        // given
+        MockHttpServletRequestBuilder requestBuilder =
+                MockMvcRequestBuilders.patch("/catalogue-api/products/1")
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title": "Молоко","details":"Молоко вкусное"}
+                                """)
+                        .with(jwt().jwt(jwt -> jwt.claim("scope", "edit_catalogue")));
+
+        // when
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isNoContent());
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.get("/catalogue-api/products/1")
+                        .with(jwt().jwt(jwt -> jwt.claim("scope", "view_catalogue"))))
+                .andDo(print())
+                .andExpectAll(status().isOk(),
+                        header().string(HttpHeaders.ETAG, "\"1\""),
+                        content().json("""
+                                {"id": 1, "title": "Молоко", "details": "Молоко вкусное"}
+                                """));
+    }
+
+    @SneakyThrows
+    @Test
+    @Sql("/sql/products.sql")
+    void deleteProduct_IfMatchIsStale_ReturnPreconditionFailed() {
+        // given
+        MockHttpServletRequestBuilder requestBuilder =
+                MockMvcRequestBuilders.delete("/catalogue-api/products/1")
+                        .header(HttpHeaders.IF_MATCH, "\"5\"")
+                        .with(jwt().jwt(jwt -> jwt.claim("scope", "edit_catalogue")));
+
+        // when
+        mockMvc.perform(requestBuilder)
+                // then
+                .andDo(print())
+                .andExpectAll(status().isPreconditionFailed());
+    }
+
+    @SneakyThrows
+    @Test
+    @Sql("/sql/products.sql")
+    void deleteProduct_IfMatchIsCurrent_ReturnsNoContent() {
+        // given
+        MockHttpServletRequestBuilder requestBuilder =
+                MockMvcRequestBuilders.delete("/catalogue-api/products/1")
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .with(jwt().jwt(jwt -> jwt.claim("scope", "edit_catalogue")));
+
+        // when
+        mockMvc.perform(requestBuilder)
+                // then
+                .andDo(print())
+                .andExpectAll(status().isNoContent());
+    }
+
     @SneakyThrows
     @Test
     void findProduct_UserNotAuthorized_ReturnForbidden() {
@@ -219,5 +409,19 @@ class ProductRestControllerTestIT {
                 );
     }
 
-
-}
\ No newline at end of file
+    @SneakyThrows
+    @Test
+    void deleteProduct_ProductIdHasSeveralDigits_ReturnNotFound() {
+        // given
+        MockHttpServletRequestBuilder requestBuilder =
+                MockMvcRequestBuilders.delete("/catalogue-api/products/42")
+                        .with(jwt().jwt(jwt -> jwt.claim("scope", "edit_catalogue")));
+        // when
+        mockMvc.perform(requestBuilder)
+                //then
+                .andDo(print())
+                .andExpectAll(
+                        status().isNotFound()
+                );
+    }
+}
@@ -0,0 +1,82 @@
+package ru.adel.catalogue.controller;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.tracing.sampling.probability=1.0")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(metrics = false)
+@Transactional
+class ProductTracingTestIT {
+
+    static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    static final String MANAGER_SPAN_ID = "00f067aa0ba902b7";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    InMemorySpanExporter spanExporter;
+
+    @Autowired
+    SdkTracerProvider tracerProvider;
+
+    @SneakyThrows
+    @Test
+    @Sql("/sql/products.sql")
+    void findProduct_RequestCarriesTraceContext_ContinuesTraceWithJdbcSpans() {
+        // given
+        spanExporter.reset();
+
+        // when
+        mockMvc.perform(MockMvcRequestBuilders.get("/catalogue-api/products/1")
+                        .header("traceparent", "00-%s-%s-01".formatted(TRACE_ID, MANAGER_SPAN_ID))
+                        .with(jwt().jwt(jwt -> jwt.claim("scope", "view_catalogue"))))
+                .andExpect(status().isOk());
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+
+        // then
+        List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        SpanData request = spans.stream()
+                .filter(span -> span.getKind() == SpanKind.SERVER)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(TRACE_ID, request.getTraceId());
+        assertEquals(MANAGER_SPAN_ID, request.getParentSpanId());
+        assertTrue(spans.stream().anyMatch(span -> span.getName().equals("query")
+                        && span.getTraceId().equals(TRACE_ID)
+                        && span.getAttributes().asMap().toString().contains("t_product")),
+                () -> "Нет span'а JDBC-запроса среди " + spans.stream().map(SpanData::getName).toList());
+    }
+
+    @TestConfiguration
+    static class InMemorySpans {
+
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package ru.adel.catalogue.controller;
+
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import ru.adel.catalogue.controller.payload.BatchItemResult;
+import ru.adel.catalogue.controller.payload.BatchUpdateProductDto;
+import ru.adel.catalogue.controller.payload.NewProductDto;
+import ru.adel.catalogue.domain.entity.Product;
+import ru.adel.catalogue.service.ProductService;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductsBatchRestControllerTest {
+
+    @Mock
+    ProductService productService;
+
+    @Mock
+    MessageSource messageSource;
+
+    ProductsBatchRestController controller;
+
+    Locale locale = Locale.forLanguageTag("ru");
+
+    @BeforeEach
+    void setUp() {
+        controller = new ProductsBatchRestController(productService,
+                Validation.buildDefaultValidatorFactory().getValidator(), messageSource);
+    }
+
+    @Test
+    void createProducts_SomeItemsAreInvalid_CreatesValidItemsAndReportsErrors() {
+        // given
+        List<NewProductDto> payload = List.of(new NewProductDto("Молоко", "Вкусное"),
+                new NewProductDto(null, null),
+                new NewProductDto("Хлеб", null));
+        when(productService.createProducts(List.of(new Product(null, "Молоко", "Вкусное"),
+                new Product(null, "Хлеб", null))))
+                .thenReturn(List.of(new Product(51, "Молоко", "Вкусное"), new Product(52, "Хлеб", null)));
+
+        // when
+        ResponseEntity<?> result = controller.createProducts(payload, locale);
+
+        // then
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        List<?> body = (List<?>) result.getBody();
+        assertEquals(new BatchItemResult(0, 201, 51, List.of()), body.get(0));
+        assertEquals(400, ((BatchItemResult) body.get(1)).status());
+        assertEquals(1, ((BatchItemResult) body.get(1)).errors().size());
+        assertEquals(new BatchItemResult(2, 201, 52, List.of()), body.get(2));
+    }
+
+    @Test
+    void updateProducts_SomeProductsDoNotExist_ReturnsNotFoundForThem() {
+        // given
+        List<BatchUpdateProductDto> payload = List.of(new BatchUpdateProductDto(1, "Молоко", null),
+                new BatchUpdateProductDto(2, "Хлеб", null));
+        when(productService.updateProducts(any())).thenReturn(Set.of(1));
+        doReturn("Товар не найден").when(messageSource)
+                .getMessage(eq("catalogue.errors.product.not_found"), any(), anyString(), eq(locale));
+
+        // when
+        ResponseEntity<?> result = controller.updateProducts(payload, locale);
+
+        // then
+        assertEquals(List.of(new BatchItemResult(0, 204, 1, List.of()),
+                new BatchItemResult(1, 404, 2, List.of("Товар не найден"))), result.getBody());
+        verify(productService).updateProducts(List.of(new Product(1, "Молоко", null), new Product(2, "Хлеб", null)));
+    }
+
+    @Test
+    void deleteProducts_ReturnsResultPerId() {
+        // given
+        when(productService.deleteProducts(List.of(1, 2))).thenReturn(Set.of(2));
+        doReturn("Товар не найден").when(messageSource)
+                .getMessage(eq("catalogue.errors.product.not_found"), any(), anyString(), eq(locale));
+
+        // when
+        ResponseEntity<?> result = controller.deleteProducts(List.of(1, 2), locale);
+
+        // then
+        assertEquals(List.of(new BatchItemResult(0, 404, 1, List.of("Товар не найден")),
+                new BatchItemResult(1, 204, 2, List.of())), result.getBody());
+    }
+
+    @Test
+    void deleteProducts_BatchIsTooLarge_ReturnsBadRequest() {
+        // given
+        List<Integer> payload = Collections.nCopies(ProductsBatchRestController.MAX_BATCH_SIZE + 1, 1);
+
+        // when
+        ResponseEntity<?> result = controller.deleteProducts(payload, locale);
+
+        // then
+        assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
+        assertInstanceOf(ProblemDetail.class, result.getBody());
+        verifyNoInteractions(productService);
+    }
+}
@@ -0,0 +1,95 @@
+package ru.adel.catalogue.controller;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class ProductsBatchRestControllerTestIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @SneakyThrows
+    @Test
+    void createProducts_ReturnsResultPerItem() {
+        // given
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.post("/catalogue-api/products/batch")
+                .locale(Locale.forLanguageTag("ru"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        [
+                        {"title": "Молоко", "details": "Молоко вкусное"},
+                        {"title": "  ", "details": null}
+                        ]""")
+                .with(jwt().jwt(jwt -> jwt.claim("scope", "edit_catalogue")));
+        // when
+        mockMvc.perform(requestBuilder)
+                // then
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON),
+                        jsonPath("$[0].status").value(201),
+                        jsonPath("$[0].id").isNumber(),
+                        jsonPath("$[1].status").value(400),
+                        jsonPath("$[1].errors[0]").value("Название товара должно быть от 3 до 50 символов")
+                );
+    }
+
+    @SneakyThrows
+    @Test
+    @Sql("/sql/products.sql")
+    void deleteProducts_ReturnsResultPerItem() {
+        // given
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.delete("/catalogue-api/products/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2, 100]")
+                .with(jwt().jwt(jwt -> jwt.claim("scope", "edit_catalogue")));
+        // when
+        mockMvc.perform(requestBuilder)
+                // then
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        content().json("""
+                                [
+                                {"index": 0, "status": 204, "id": 1},
+                                {"index": 1, "status": 204, "id": 2},
+                                {"index": 2, "status": 404, "id": 100}
+                                ]""")
+                );
+    }
+
+    @SneakyThrows
+    @Test
+    void createProducts_UserIsNotAuthorized_ReturnsForbidden() {
+        // given
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.post("/catalogue-api/products/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        [{"title": "Молоко", "details": "Молоко вкусное"}]""")
+                .with(jwt().jwt(jwt -> jwt.claim("scope", "view_catalogue")));
+        // when
+        mockMvc.perform(requestBuilder)
+                // then
+                .andDo(print())
+                .andExpectAll(status().isForbidden());
+    }
+}
@@ -6,7 +6,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindException;
 import org.springframework.validation.BindingResult;
@@ -15,12 +17,19 @@ import org.springframework.validation.MapBindingResult;
 import org.springframework.web.util.UriComponentsBuilder;
 import ru.adel.catalogue.controller.payload.NewProductDto;
 import ru.adel.catalogue.domain.entity.Product;
+import ru.adel.catalogue.domain.projection.ProductCursor;
+import ru.adel.catalogue.domain.projection.ProductField;
+import ru.adel.catalogue.domain.projection.ProductView;
 import ru.adel.catalogue.service.ProductService;
 
 
 import java.net.URI;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,6 +40,9 @@ class ProductsRestControllerTest {
     @Mock
     ProductService productService;
 
+    @Mock
+    MessageSource messageSource;
+
     @InjectMocks
     ProductsRestController restController;
 
@@ -40,13 +52,79 @@ class ProductsRestControllerTest {
         String filter = "товар";
 
         // when
-        when(productService.findAllProducts(filter)).thenReturn(List.of(new Product(1, "Первый товар", "Описание первого товара"),
-                new Product(2, "Второй товар", "Описание второго товара")));
-        Iterable<Product> result = restController.findProducts(filter);
+        when(productService.findAllProducts(filter, ProductCursor.START, 51, ProductField.ALL)).thenReturn(List.of(new ProductView(1, "Первый товар", "Описание первого товара", null),
+                new ProductView(2, "Второй товар", "Описание второго товара", null)));
+        ResponseEntity<List<ProductView>> result = restController.findProducts(filter, ProductCursor.START, 50, null);
+
+        //then
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(List.of(new ProductView(1, "Первый товар", "Описание первого товара", null),
+                new ProductView(2, "Второй товар", "Описание второго товара", null)), result.getBody());
+        assertNull(result.getHeaders().getFirst(ProductsRestController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void findProducts_MoreProductsThanLimit_ReturnsPageWithNextCursor() {
+        // given
+        String filter = "товар";
+
+        // when
+        when(productService.findAllProducts(filter, new ProductCursor(1, null), 3, ProductField.ALL)).thenReturn(List.of(new ProductView(2, "Второй товар", "Описание второго товара", null),
+                new ProductView(3, "Третий товар", "Описание третьего товара", null),
+                new ProductView(4, "Четвёртый товар", "Описание четвёртого товара", null)));
+        ResponseEntity<List<ProductView>> result = restController.findProducts(filter, new ProductCursor(1, null), 2, null);
+
+        //then
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(List.of(new ProductView(2, "Второй товар", "Описание второго товара", null),
+                new ProductView(3, "Третий товар", "Описание третьего товара", null)), result.getBody());
+        assertEquals("3", result.getHeaders().getFirst(ProductsRestController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void findProducts_LimitIsOutOfBounds_UsesMaxPageSize() {
+        // when
+        when(productService.findAllProducts(null, ProductCursor.START, ProductsRestController.MAX_PAGE_SIZE + 1, ProductField.ALL)).thenReturn(List.of());
+        ResponseEntity<List<ProductView>> result = restController.findProducts(null, ProductCursor.START, 100_000, null);
 
         //then
-        assertEquals(List.of(new Product(1, "Первый товар", "Описание первого товара"),
-                new Product(2, "Второй товар", "Описание второго товара")), result);
+        assertEquals(List.of(), result.getBody());
+        verify(productService).findAllProducts(null, ProductCursor.START, ProductsRestController.MAX_PAGE_SIZE + 1, ProductField.ALL);
+    }
+
+    @Test
+    void findProductsByIds_ReturnsFoundProducts() {
+        // given
+        doReturn(List.of(new ProductView(1, "Первый товар", "Описание первого товара", 0),
+                new ProductView(3, "Третий товар", "Описание третьего товара", 0)))
+                .when(this.productService).findProducts(Set.of(3, 1, 2));
+
+        // when
+        ResponseEntity<?> result = restController.findProductsByIds(Arrays.asList(3, 1, null, 2, 1), Locale.ROOT);
+
+        // then
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(List.of(new ProductView(1, "Первый товар", "Описание первого товара", 0),
+                new ProductView(3, "Третий товар", "Описание третьего товара", 0)), result.getBody());
+    }
+
+    @Test
+    void findProductsByIds_TooManyIds_ReturnsBadRequest() {
+        // given
+        List<Integer> ids = IntStream.rangeClosed(1, ProductsRestController.MAX_PAGE_SIZE + 1).boxed().toList();
+        doReturn("Слишком много идентификаторов").when(this.messageSource)
+                .getMessage("catalogue.products.ids.errors.size_is_invalid",
+                        new Object[]{ProductsRestController.MAX_PAGE_SIZE},
+                        "catalogue.products.ids.errors.size_is_invalid", Locale.ROOT);
+
+        // when
+        ResponseEntity<?> result = restController.findProductsByIds(ids, Locale.ROOT);
+
+        // then
+        assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
+        assertEquals(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Слишком много идентификаторов"),
+                result.getBody());
+        verifyNoInteractions(this.productService);
     }
 
     @SneakyThrows
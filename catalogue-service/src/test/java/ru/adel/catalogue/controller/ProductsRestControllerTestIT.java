@@ -1,5 +1,7 @@
 package ru.adel.catalogue.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,13 +11,20 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Locale;
+import java.util.Map;
 
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -24,6 +33,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @Transactional
 class ProductsRestControllerTestIT {
 
+    static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
     @Autowired
     MockMvc mockMvc;
 
@@ -54,6 +65,257 @@ class ProductsRestControllerTestIT {
                 );
     }
 
+    @SneakyThrows
+    @Test
+    @Sql("/sql/products.sql")
+    void findProducts_LimitIsLessThanProductsCount_ReturnsPageWithNextCursor() {
+        // given
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/catalogue-api/products")
+                .param("after", "1")
+                .param("limit", "2")
+                .with(jwt().jwt(jwt -> jwt.claim("scope", "view_catalogue")));
+        // when
+        mockMvc.perform(requestBuilder)
+                // then
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        header().string("X-Next-Cursor", "3"),
+                        content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON),
+                        content().json("""
+                                [
+                                {"id" : 2,"title": "Шоколадка","details" :"Шоколадка 2" },
+                                {"id" : 3,"title": "Мясо 3","details" :"Мясо 3" }
+                                ]
+                                """)
+                );
+    }
+
+    @SneakyThrows
+    @Test
+    @Sql("/sql/products.sql")
+    void findProducts_FilterAndCursorFromPreviousPage_ReturnsNextPageBySimilarity() {
+        // given
+        String cursor = mockMvc.perform(MockMvcRequestBuilders.get("/catalogue-api/products")
+                        .param("filter", "товара")
+                        .param("limit", "1")
+                        .with(jwt().jwt(jwt -> jwt.claim("scope", "view_catalogue"))))
+                .andExpect(header().string("X-Next-Cursor", matchesPattern("\\d+\\.\\d+(E-\\d+)?:1")))
+                .andReturn()
+                .getResponse()
+                .getHeader("X-Next-Cursor");
+
+        // when
+        mockMvc.perform(MockMvcRequestBuilders.get("/catalogue-api/products")
+                        .param("filter", "товара")
+                        .param("after", cursor)
+                        .with(jwt().jwt(jwt -> jwt.claim("scope", "view_catalogue"))))
+                // then
+                .andExpectAll(
+                        status().isOk(),
+                        content().json("""
+                                [{"id": 4}, {"id": 5}]""")
+                );
+    }
+
+    @SneakyThrows
+    @Test
+    void findProducts_CursorIsMalformed_ReturnsBadRequest() {
+        // when
+        mockMvc.perform(MockMvcRequestBuilders.get("/catalogue-api/products")
+                        .param("filter", "товара")
+                        .param("after", "похожесть:4")
+                        .with(jwt().jwt(jwt -> jwt.claim("scope", "view_catalogue"))))
+                // then
+                .andExpect(status().isBadRequest());
+    }
+
+    @SneakyThrows
+    @Test
+    @Sql("/sql/products.sql")
+    void findProducts_FieldsAreIdAndTitle_ReturnsProductsWithoutDetails() {
+        // given
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/catalogue-api/products")
+                .param("after", "1")
+                .param("limit", "2")
+                .param("fields", "id,title")
+                .with(jwt().jwt(jwt -> jwt.claim("scope", "view_catalogue")));
+        // when
+        mockMvc.perform(requestBuilder)
+                // then
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        header().string("X-Next-Cursor", "3"),
+                        content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON),
+                        content().json("""
+                                [
+                                {"id" : 2,"title": "Шоколадка", "version": 0},
+                                {"id" : 3,"title": "Мясо 3", "version": 0}
+                                ]
+                                """, true)
+                );
+    }
+
+    @SneakyThrows
+    @Test
+    @Sql("/sql/products.sql")
+    void findProducts_FieldIsUnknown_ReturnsBadRequest() {
+        // given
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/catalogue-api/products")
+                .param("fields", "id,price")
+                .with(jwt().jwt(jwt -> jwt.claim("scope", "view_catalogue")));
+        // when
+        mockMvc.perform(requestBuilder)
+                // then
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @SneakyThrows
+    @Test
+    @Sql("/sql/products.sql")
+    void findProducts_AcceptIsSmile_ReturnsSmile() {
+        // given
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/catalogue-api/products")
+                .param("after", "3")
+                .accept(SMILE, MediaType.APPLICATION_JSON)
+                .with(jwt().jwt(jwt -> jwt.claim("scope", "view_catalogue")));
+        // when
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                // then
+                .andExpectAll(
+                        status().isOk(),
+                        content().contentType(SMILE))
+                .andReturn();
+        assertEquals(new ObjectMapper().readTree("""
+                        [
+                        {"id" : 4,"title": "Название товара 4","details" :"Описание товара 4", "version": 0},
+                        {"id" : 5,"title": "Название товара 5","details" :"Описание товара 5", "version": 0}
+                        ]"""),
+                new SmileMapper().readTree(mvcResult.getResponse().getContentAsByteArray()));
+    }
+
+    @SneakyThrows
+    @Test
+    @Sql("/sql/products.sql")
+    void findProductsByIds_ReturnsExistingProducts() {
+        // given
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/catalogue-api/products")
+                .param("ids", "4,2,42")
+                .with(jwt().jwt(jwt -> jwt.claim("scope", "view_catalogue")));
+        // when
+        mockMvc.perform(requestBuilder)
+                // then
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON),
+                        content().json("""
+                                [
+                                {"id" : 2,"title": "Шоколадка","details" :"Шоколадка 2", "version": 0},
+                                {"id" : 4,"title": "Название товара 4","details" :"Описание товара 4", "version": 0}
+                                ]
+                                """, true)
+                );
+    }
+
+    @SneakyThrows
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Sql("/sql/products.sql")
+    @Sql(scripts = "/sql/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void findProducts_AcceptIsNdjson_StreamsProducts() {
+        // given
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/catalogue-api/products")
+                .param("filter", "товара")
+                .accept("application/x-ndjson")
+                .with(jwt().jwt(jwt -> jwt.claim("scope", "view_catalogue")));
+        // when
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                // then
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        content().contentTypeCompatibleWith("application/x-ndjson"),
+                        content().bytes("""
+                                {"id":1,"title":"Название товара 1","details":"Описание товара 1","version":0}
+                                {"id":4,"title":"Название товара 4","details":"Описание товара 4","version":0}
+                                {"id":5,"title":"Название товара 5","details":"Описание товара 5","version":0}"""
+                                .getBytes(StandardCharsets.UTF_8))
+                );
+    }
+
+    @SneakyThrows
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Sql("/sql/products_ranked.sql")
+    @Sql(scripts = "/sql/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void findProducts_AcceptIsNdjsonAndFilterIsPresent_StreamsProductsInPageOrder() {
+        // given
+        String products = """
+                [
+                {"id":2,"title":"Шоколад","details":"Плитка","version":0},
+                {"id":1,"title":"Шоколадный торт","details":"Торт","version":0}
+                ]""";
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/catalogue-api/products")
+                .param("filter", "шоколад")
+                .accept("application/x-ndjson")
+                .with(jwt().jwt(jwt -> jwt.claim("scope", "view_catalogue")));
+        mockMvc.perform(MockMvcRequestBuilders.get("/catalogue-api/products")
+                        .param("filter", "шоколад")
+                        .with(jwt().jwt(jwt -> jwt.claim("scope", "view_catalogue"))))
+                .andExpect(content().json(products, true));
+        // when
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                // then
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        content().bytes("""
+                                {"id":2,"title":"Шоколад","details":"Плитка","version":0}
+                                {"id":1,"title":"Шоколадный торт","details":"Торт","version":0}"""
+                                .getBytes(StandardCharsets.UTF_8))
+                );
+    }
+
+    @SneakyThrows
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Sql("/sql/products.sql")
+    @Sql(scripts = "/sql/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void findProducts_StreamIsTrue_StreamsJsonArray() {
+        // given
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/catalogue-api/products")
+                .param("stream", "true")
+                .with(jwt().jwt(jwt -> jwt.claim("scope", "view_catalogue")));
+        // when
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                // then
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON),
+                        content().json("""
+                                [
+                                {"id" : 1,"title": "Название товара 1","details" :"Описание товара 1", "version": 0},
+                                {"id" : 2,"title": "Шоколадка","details" :"Шоколадка 2", "version": 0},
+                                {"id" : 3,"title": "Мясо 3","details" :"Мясо 3", "version": 0},
+                                {"id" : 4,"title": "Название товара 4","details" :"Описание товара 4", "version": 0},
+                                {"id" : 5,"title": "Название товара 5","details" :"Описание товара 5", "version": 0}
+                                ]""", true)
+                );
+    }
+
     @SneakyThrows
     @Test
     void findProduct_UserIsNotAuthorized_ReturnForbidden() {
@@ -87,11 +349,11 @@ class ProductsRestControllerTestIT {
                 .andDo(print())
                 .andExpectAll(
                         status().isCreated(),
-                        header().string(HttpHeaders.LOCATION, "http://localhost/catalogue-api/products/1"),
+                        header().string(HttpHeaders.LOCATION, matchesPattern("http://localhost/catalogue-api/products/\\d+")),
                         content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON),
+                        jsonPath("$.id").isNumber(),
                         content().json("""
-                                {"id": 1,
-                                "title": "new product",
+                                {"title": "new product",
                                 "details": "product_details"}
                                 """)
                 );
@@ -99,6 +361,31 @@ class ProductsRestControllerTestIT {
 
     }
 
+    @SneakyThrows
+    @Test
+    void createProduct_RequestIsInvalidSmile_ReturnsProblemDetail() {
+        // given
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.post("/catalogue-api/products")
+                .contentType(SMILE)
+                .accept(SMILE, MediaType.APPLICATION_JSON)
+                .locale(Locale.forLanguageTag("ru"))
+                .content(new SmileMapper().writeValueAsBytes(Map.of("title", "  ")))
+                .with(jwt().jwt(jwt -> jwt.claim("scope", "edit_catalogue")));
+        // when
+        mockMvc.perform(requestBuilder)
+                // then
+                .andDo(print())
+                .andExpectAll(
+                        status().isBadRequest(),
+                        content().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON),
+                        content().json("""
+                                {
+                                    "errors": [
+                                        "Название товара должно быть от 3 до 50 символов"
+                                    ]
+                                }"""));
+    }
+
     @SneakyThrows
     @Test
     void createProduct_RequestIsInvalid_ReturnsProblemDetail(){
@@ -0,0 +1,119 @@
+package ru.adel.catalogue.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+import ru.adel.catalogue.domain.projection.ProductCursor;
+import ru.adel.catalogue.domain.projection.ProductField;
+import ru.adel.catalogue.domain.projection.ProductView;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class ProductRepositoryTestIT {
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Test
+    @Sql("/sql/products.sql")
+    void searchProducts_UsesTrigramIndexes() {
+        // given
+        // на пяти строках планировщик всегда выберет seq scan, поэтому запрещаем его в рамках транзакции
+        this.jdbcTemplate.execute("set local enable_seqscan = off");
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("filter", "товара")
+                .addValue("pattern", "%товара%")
+                .addValue("afterId", 0)
+                .addValue("afterSimilarity", null)
+                .addValue("limit", 10);
+
+        // when
+        String plan = String.join("\n", this.namedParameterJdbcTemplate.queryForList(
+                "explain " + ProductRepository.SEARCH_QUERY, parameters, String.class));
+
+        // then
+        assertTrue(plan.contains("idx_product_title_trgm"), plan);
+        assertTrue(plan.contains("idx_product_details_trgm"), plan);
+        assertFalse(plan.contains("Seq Scan on t_product"), plan);
+    }
+
+    @Test
+    @Sql("/sql/products.sql")
+    void searchProducts_ReturnsPagesInSimilarityOrder() {
+        // when
+        List<ProductView> meat = this.productRepository.searchProducts("мясо", "%мясо%", ProductCursor.START, 10);
+        List<ProductView> firstPage = this.productRepository.searchProducts("товара 4", "%товара%",
+                ProductCursor.START, 1);
+        List<ProductView> secondPage = this.productRepository.searchProducts("товара 4", "%товара%",
+                ProductCursor.after(firstPage.get(0)), 10);
+
+        // then
+        assertEquals(List.of(3), meat.stream().map(ProductView::id).toList());
+        assertEquals(List.of(4), firstPage.stream().map(ProductView::id).toList());
+        assertEquals(List.of(1, 5), secondPage.stream().map(ProductView::id).toList());
+    }
+
+    @Test
+    @Sql("/sql/products.sql")
+    void searchProducts_CursorProductIsDeletedBetweenPages_ContinuesAfterCursor() {
+        // given
+        List<ProductView> firstPage = this.productRepository.searchProducts("товара 4", "%товара%",
+                ProductCursor.START, 2);
+        ProductCursor cursor = ProductCursor.valueOf(ProductCursor.after(firstPage.get(1)).toString());
+        this.jdbcTemplate.update("delete from catalogue.t_product where id = ?", cursor.id());
+
+        // when
+        List<ProductView> secondPage = this.productRepository.searchProducts("товара 4", "%товара%", cursor, 10);
+
+        // then
+        assertEquals(List.of(4, 1), firstPage.stream().map(ProductView::id).toList());
+        assertEquals(List.of(5), secondPage.stream().map(ProductView::id).toList());
+    }
+
+    @Test
+    @Sql("/sql/products.sql")
+    void searchProducts_CursorProductIsRenamedBetweenPages_DoesNotSkipProducts() {
+        // given
+        List<ProductView> firstPage = this.productRepository.searchProducts("товара 4", "%товара%",
+                ProductCursor.START, 1);
+        this.jdbcTemplate.update("update catalogue.t_product set c_title = 'Товар' where id = 4");
+
+        // when
+        List<ProductView> secondPage = this.productRepository.searchProducts("товара 4", "%товара%",
+                ProductCursor.after(firstPage.get(0)), 10);
+
+        // then
+        // переименованный товар сам может снова попасть в выдачу на новом месте, но остальные не пропадают
+        assertTrue(secondPage.stream().map(ProductView::id).toList().containsAll(List.of(1, 5)));
+    }
+
+    @Test
+    @Sql("/sql/products.sql")
+    void findProducts_DetailsAreNotRequested_ReturnsProductsWithoutDetails() {
+        // when
+        List<ProductView> products = this.productRepository.findProducts(1, 2,
+                Set.of(ProductField.ID, ProductField.TITLE));
+
+        // then
+        assertEquals(List.of(new ProductView(2, "Шоколадка", null, 0), new ProductView(3, "Мясо 3", null, 0)),
+                products);
+    }
+}
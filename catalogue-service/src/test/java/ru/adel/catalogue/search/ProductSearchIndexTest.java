@@ -0,0 +1,110 @@
+package ru.adel.catalogue.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    ProductSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new ProductSearchIndex();
+        searchIndex.put(1, "Название товара 1", "Описание товара 1");
+        searchIndex.put(2, "Шоколадка", "Шоколадка 2");
+        searchIndex.put(3, "Мясо 3", "Мясо 3");
+        searchIndex.put(4, "Название товара 4", "Описание товара 4");
+        searchIndex.put(5, "Название товара 5", "Описание ёлочной игрушки");
+    }
+
+    @Test
+    void search_QueryMatchesTermPrefix_ReturnsProductsOrderedById() {
+        // when
+        List<Integer> result = searchIndex.search("ТОВАР", 0, 10);
+
+        // then
+        assertEquals(List.of(1, 4, 5), result);
+    }
+
+    @Test
+    void search_SeveralWords_ReturnsProductsContainingAllWords() {
+        // when
+        List<Integer> result = searchIndex.search("товара, елочной", 0, 10);
+
+        // then
+        assertEquals(List.of(5), result);
+    }
+
+    @Test
+    void search_AfterAndLimit_ReturnsNextPage() {
+        // when
+        List<Integer> result = searchIndex.search("описание", 1, 1);
+
+        // then
+        assertEquals(List.of(4), result);
+    }
+
+    @Test
+    void search_NothingMatches_ReturnsEmptyList() {
+        assertEquals(List.of(), searchIndex.search("молоко", 0, 10));
+        assertEquals(List.of(), searchIndex.search("  ", 0, 10));
+    }
+
+    @Test
+    void put_ProductExists_ReplacesTerms() {
+        // when
+        searchIndex.put(2, "Молочный шоколад", null);
+
+        // then
+        assertEquals(List.of(), searchIndex.search("шоколадка", 0, 10));
+        assertEquals(List.of(2), searchIndex.search("шоколад", 0, 10));
+    }
+
+    @Test
+    void remove_ProductExists_RemovesItFromResultsAndTerms() {
+        // given
+        int terms = searchIndex.stats().terms();
+
+        // when
+        searchIndex.remove(3);
+
+        // then
+        assertEquals(List.of(), searchIndex.search("мясо", 0, 10));
+        assertEquals(terms - 2, searchIndex.stats().terms());
+    }
+
+    @Test
+    void stats_ReturnsIndexSize() {
+        // when
+        IndexStats stats = searchIndex.stats();
+
+        // then
+        assertEquals(5, stats.documents());
+        assertEquals(12, stats.terms());
+        assertEquals(18, stats.postings());
+        assertTrue(stats.estimatedBytes() > 0);
+    }
+
+    @Test
+    void stats_ProductsAreReplacedAndRemoved_KeepsSizeInStepWithContents() {
+        // given
+        IndexStats initial = searchIndex.stats();
+
+        // when
+        searchIndex.put(2, "Молочный шоколад", null);
+        searchIndex.put(2, "Шоколадка", "Шоколадка 2");
+        IndexStats replaced = searchIndex.stats();
+        for (int productId = 1; productId <= 5; productId++) {
+            searchIndex.remove(productId);
+        }
+
+        // then
+        assertEquals(initial.terms(), replaced.terms());
+        assertEquals(initial.postings(), replaced.postings());
+        assertEquals(new IndexStats(0, 0, 0, 0), searchIndex.stats());
+    }
+}
@@ -0,0 +1,100 @@
+package ru.adel.catalogue.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import ru.adel.catalogue.domain.event.ProductDeletedEvent;
+import ru.adel.catalogue.domain.event.ProductSavedEvent;
+import ru.adel.catalogue.domain.projection.ProductCursor;
+import ru.adel.catalogue.domain.projection.ProductField;
+import ru.adel.catalogue.domain.projection.ProductView;
+import ru.adel.catalogue.repository.ProductRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IndexedProductServiceTest {
+
+    @Mock
+    DefaultProductService productService;
+
+    @Mock
+    ProductRepository productRepository;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    IndexedProductService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new IndexedProductService(productService, productRepository, meterRegistry);
+        doReturn(List.of(new ProductView(1, "Название товара 1", "Описание товара 1", 0),
+                new ProductView(2, "Шоколадка", "Шоколадка 2", 0)))
+                .when(productRepository).findAllByIdGreaterThanOrderById(0, Limit.of(1000), ProductView.class);
+        service.buildIndex();
+    }
+
+    @Test
+    void buildIndex_PublishesIndexSizeThatFollowsChanges() {
+        // given
+        double size = gauge("catalogue.search.index.size");
+
+        // when
+        service.onProductSaved(new ProductSavedEvent(3, "Мясо 3", "Мясо 3"));
+
+        // then
+        assertEquals(3, gauge("catalogue.search.index.documents"));
+        assertEquals(8, gauge("catalogue.search.index.terms"));
+        assertEquals(8, gauge("catalogue.search.index.postings"));
+        assertTrue(gauge("catalogue.search.index.size") > size);
+
+        // when
+        service.onProductDeleted(new ProductDeletedEvent(3));
+
+        // then
+        assertEquals(2, gauge("catalogue.search.index.documents"));
+        assertEquals(size, gauge("catalogue.search.index.size"));
+    }
+
+    @Test
+    void findAllProducts_FilterIsPresent_ReadsMatchedProductsFromDatabase() {
+        // given
+        doReturn(List.of(new ProductView(1, "Название товара 1", "Описание товара 1", 3)))
+                .when(productService).findProducts(List.of(1));
+
+        // when
+        List<ProductView> result = service.findAllProducts("товар", ProductCursor.START, 10,
+                Set.of(ProductField.ID, ProductField.TITLE));
+
+        // then
+        assertEquals(List.of(new ProductView(1, "Название товара 1", null, 3)), result);
+    }
+
+    @Test
+    void exportProducts_FilterIsPresent_ExportsMatchedProductsFromDatabase() {
+        // given
+        List<ProductView> products = List.of(new ProductView(1, "Название товара 1", "Описание товара 1", 3));
+        doReturn(products).when(productService).findProducts(List.of(1));
+        List<ProductView> exported = new ArrayList<>();
+
+        // when
+        service.exportProducts("товар", exported::add);
+
+        // then
+        assertEquals(products, exported);
+        verify(productService, never()).exportProducts(any(), any());
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+}
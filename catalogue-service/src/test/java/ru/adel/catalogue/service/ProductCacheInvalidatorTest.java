@@ -0,0 +1,48 @@
+package ru.adel.catalogue.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import ru.adel.catalogue.config.CacheConfig;
+import ru.adel.catalogue.domain.projection.ProductView;
+import ru.adel.catalogue.domain.event.ProductDeletedEvent;
+import ru.adel.catalogue.domain.event.ProductSavedEvent;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheInvalidatorTest {
+
+    ConcurrentMapCacheManager cacheManager;
+
+    ProductCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.PRODUCTS_CACHE);
+        invalidator = new ProductCacheInvalidator(cacheManager);
+        cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).put(1, Optional.of(new ProductView(1, "Товар", "Описание", 0)));
+        cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).put(2, Optional.of(new ProductView(2, "Товар", "Описание", 0)));
+    }
+
+    @Test
+    void onProductSaved_EvictsProduct() {
+        // when
+        invalidator.onProductSaved(new ProductSavedEvent(1, "Новое название", null));
+
+        // then
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).get(1));
+        assertNotNull(cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).get(2));
+    }
+
+    @Test
+    void onProductDeleted_EvictsProduct() {
+        // when
+        invalidator.onProductDeleted(new ProductDeletedEvent(2));
+
+        // then
+        assertNotNull(cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).get(1));
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).get(2));
+    }
+}
@@ -0,0 +1,57 @@
+package ru.adel.catalogue.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.adel.catalogue.domain.entity.Product;
+import ru.adel.catalogue.domain.projection.ProductCursor;
+import ru.adel.catalogue.domain.projection.ProductView;
+import ru.adel.catalogue.repository.ProductRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Чтение страницы через проекции отдаёт тот же ответ, что и прежний путь через управляемые сущности.
+ * Выделяемую обоими путями память сравнивает {@code ProductReadPathBenchmark} в модуле benchmarks.
+ */
+@SpringBootTest
+@Sql("/sql/products_page.sql")
+@Sql(scripts = "/sql/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class ProductReadPathTestIT {
+
+    private static final int PAGE_SIZE = 500;
+
+    @Autowired
+    ProductService productService;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @SneakyThrows
+    @Test
+    void findAllProducts_SerializesSameAsEntityPath() {
+        // given
+        List<Product> entities = this.transactionTemplate.execute(status -> this.productRepository
+                .findAllByIdGreaterThanOrderById(0, Limit.of(PAGE_SIZE), Product.class));
+
+        // when
+        List<ProductView> projections = this.productService.findAllProducts(null, ProductCursor.START, PAGE_SIZE);
+
+        // then
+        assertEquals(PAGE_SIZE, projections.size());
+        assertEquals(this.objectMapper.writeValueAsString(entities), this.objectMapper.writeValueAsString(projections));
+    }
+}
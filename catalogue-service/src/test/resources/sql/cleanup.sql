@@ -0,0 +1 @@
+delete from catalogue.t_product;
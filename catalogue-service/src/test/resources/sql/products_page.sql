@@ -0,0 +1,3 @@
+insert into catalogue.t_product (id, c_title, c_details)
+select i, 'Название товара ' || i, 'Описание товара ' || i
+from generate_series(1, 500) i;
@@ -0,0 +1,4 @@
+insert into catalogue.t_product (id, c_title, c_details)
+values (1, 'Шоколадный торт', 'Торт'),
+       (2, 'Шоколад', 'Плитка'),
+       (3, 'Мясо', 'Мясо');
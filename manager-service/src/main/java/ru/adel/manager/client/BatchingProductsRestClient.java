@@ -0,0 +1,231 @@
+package ru.adel.manager.client;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import ru.adel.manager.controller.dto.BatchUpdateProductDto;
+import ru.adel.manager.controller.dto.NewProductDto;
+import ru.adel.manager.domain.entity.BatchItemResult;
+import ru.adel.manager.domain.entity.Product;
+import ru.adel.manager.domain.entity.ProductsPage;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Собирает одиночные {@link #findProduct(int)} в пакетные {@link ProductsRestClient#findProducts(Collection)}
+ * по образцу DataLoader. Первый вызов открывает пакет и ждёт {@code window}, вызовы того же пользователя за это
+ * время присоединяются к пакету, после чего первый вызов отправляет его; пакет, набравший {@code maxBatchSize}
+ * товаров, отправляет вызов, который его заполнил. Пакеты разных пользователей не смешиваются, поэтому запрос
+ * уходит с токеном того, чьи товары в нём запрошены.
+ * <p>
+ * Пакет из одного товара отправляется обычным {@link ProductsRestClient#findProduct(int)}.
+ * Размеры отправленных пакетов пишутся в {@code catalogue.client.batch.size}.
+ * <p>
+ * Окно прибавляется к каждому промаху, а пакет собирается только из одновременных запросов одного пользователя,
+ * поэтому {@code selmag.services.catalogue.batch.window} по умолчанию нулевое и вызовы уходят в каталог сразу.
+ * Окно стоит включать, когда один пользователь параллельно запрашивает много товаров по одному.
+ */
+public class BatchingProductsRestClient implements ProductsRestClient {
+
+    private final ProductsRestClient delegate;
+
+    private final Duration window;
+
+    private final int maxBatchSize;
+
+    private final DistributionSummary batchSize;
+
+    // synchronized закрепил бы виртуальный поток за носителем на время ожидания блокировки
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<String, Batch> openBatches = new HashMap<>();
+
+    private SecurityContextHolderStrategy securityContextHolderStrategy =
+            SecurityContextHolder.getContextHolderStrategy();
+
+    public BatchingProductsRestClient(ProductsRestClient delegate, Duration window, int maxBatchSize,
+                                      MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.batchSize = DistributionSummary.builder("catalogue.client.batch.size")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<Product> findAllProducts(String filter) {
+        return this.delegate.findAllProducts(filter);
+    }
+
+    @Override
+    public ProductsPage findProductsPage(String filter, String after, int limit) {
+        return this.delegate.findProductsPage(filter, after, limit);
+    }
+
+    @Override
+    public ProductsPage findProductsPageUncached(String filter, String after, int limit) {
+        return this.delegate.findProductsPageUncached(filter, after, limit);
+    }
+
+    @Override
+    public Product createProduct(String title, String details) {
+        return this.delegate.createProduct(title, details);
+    }
+
+    @Override
+    public Optional<Product> findProduct(int productId) {
+        if (this.window.isZero() || this.maxBatchSize < 2) {
+            return this.delegate.findProduct(productId);
+        }
+
+        String user = currentUser();
+        Batch batch;
+        CompletableFuture<Optional<Product>> result;
+        boolean opened = false;
+        boolean filled = false;
+        this.lock.lock();
+        try {
+            batch = this.openBatches.get(user);
+            if (batch == null) {
+                batch = new Batch();
+                this.openBatches.put(user, batch);
+                opened = true;
+            }
+            result = batch.products().computeIfAbsent(productId, id -> new CompletableFuture<>());
+            if (batch.products().size() >= this.maxBatchSize) {
+                this.openBatches.remove(user);
+                batch.closed().countDown();
+                filled = true;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+
+        if (filled) {
+            dispatch(batch);
+        } else if (opened) {
+            awaitWindow(batch);
+            if (close(user, batch)) {
+                dispatch(batch);
+            }
+        }
+
+        try {
+            return result.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    @Override
+    public List<Product> findProducts(Collection<Integer> productIds) {
+        return this.delegate.findProducts(productIds);
+    }
+
+    @Override
+    public void updateProduct(int productId, String title, String details) {
+        this.delegate.updateProduct(productId, title, details);
+    }
+
+    @Override
+    public void deleteProduct(int productId) {
+        this.delegate.deleteProduct(productId);
+    }
+
+    @Override
+    public List<BatchItemResult> createProducts(List<NewProductDto> products) {
+        return this.delegate.createProducts(products);
+    }
+
+    @Override
+    public List<BatchItemResult> updateProducts(List<BatchUpdateProductDto> products) {
+        return this.delegate.updateProducts(products);
+    }
+
+    @Override
+    public List<BatchItemResult> deleteProducts(List<Integer> productIds) {
+        return this.delegate.deleteProducts(productIds);
+    }
+
+    public void setSecurityContextHolderStrategy(SecurityContextHolderStrategy securityContextHolderStrategy) {
+        this.securityContextHolderStrategy = securityContextHolderStrategy;
+    }
+
+    private String currentUser() {
+        Authentication authentication = this.securityContextHolderStrategy.getContext().getAuthentication();
+        return authentication == null ? "" : authentication.getName();
+    }
+
+    private void awaitWindow(Batch batch) {
+        try {
+            // заполненный раньше срока пакет уже отправлен, ждать окончания окна незачем
+            batch.closed().await(this.window.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException exception) {
+            // прерванный поток отправляет пакет сразу, остальные вызовы пакета ждать его не должны
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean close(String user, Batch batch) {
+        this.lock.lock();
+        try {
+            return this.openBatches.remove(user, batch);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void dispatch(Batch batch) {
+        Map<Integer, CompletableFuture<Optional<Product>>> products = batch.products();
+        this.batchSize.record(products.size());
+        try {
+            if (products.size() == 1) {
+                Map.Entry<Integer, CompletableFuture<Optional<Product>>> product =
+                        products.entrySet().iterator().next();
+                product.getValue().complete(this.delegate.findProduct(product.getKey()));
+            } else {
+                Map<Integer, Product> found = this.delegate.findProducts(List.copyOf(products.keySet())).stream()
+                        .collect(Collectors.toMap(Product::id, Function.identity()));
+                products.forEach((productId, result) -> result.complete(Optional.ofNullable(found.get(productId))));
+            }
+        } catch (RuntimeException | Error exception) {
+            products.values().forEach(result -> result.completeExceptionally(exception));
+        }
+    }
+
+    /**
+     * Пакет сравнивается по ссылке: открытый пакет закрывает только тот, кто его открыл или заполнил.
+     */
+    private static final class Batch {
+
+        private final Map<Integer, CompletableFuture<Optional<Product>>> products = new LinkedHashMap<>();
+
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        Map<Integer, CompletableFuture<Optional<Product>>> products() {
+            return this.products;
+        }
+
+        CountDownLatch closed() {
+            return this.closed;
+        }
+    }
+}
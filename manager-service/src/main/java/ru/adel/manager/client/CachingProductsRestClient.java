@@ -0,0 +1,313 @@
+package ru.adel.manager.client;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import ru.adel.manager.controller.dto.BatchUpdateProductDto;
+import ru.adel.manager.controller.dto.NewProductDto;
+import ru.adel.manager.domain.entity.BatchItemResult;
+import ru.adel.manager.domain.entity.Product;
+import ru.adel.manager.domain.entity.ProductsPage;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Кеширующая обёртка над {@link ProductsRestClient}.
+ * Товары и списки хранятся не дольше {@code timeToLive}; значение старше {@code refreshAfter}
+ * отдаётся сразу, а его обновление выполняется в фоне на {@code executor}.
+ * Изменения через этот клиент сбрасывают затронутые товары и все закешированные списки.
+ */
+public class CachingProductsRestClient implements ProductsRestClient {
+
+    private final ProductsRestClient delegate;
+
+    private final long maximumSize;
+
+    private final Duration timeToLive;
+
+    private final Duration refreshAfter;
+
+    private final Executor executor;
+
+    private final Ticker ticker;
+
+    private final MeterRegistry meterRegistry;
+
+    private final CatalogueCache<Integer, Optional<Product>> products;
+
+    private final CatalogueCache<PageQuery, ProductsPage> pages;
+
+    private final CatalogueCache<FilterQuery, List<Product>> allProducts;
+
+    public CachingProductsRestClient(ProductsRestClient delegate, long maximumSize, Duration timeToLive,
+                                     Duration refreshAfter, Executor executor, MeterRegistry meterRegistry) {
+        this(delegate, maximumSize, timeToLive, refreshAfter, executor, Ticker.systemTicker(), meterRegistry);
+    }
+
+    CachingProductsRestClient(ProductsRestClient delegate, long maximumSize, Duration timeToLive,
+                              Duration refreshAfter, Executor executor, Ticker ticker, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maximumSize = maximumSize;
+        this.timeToLive = timeToLive;
+        this.refreshAfter = refreshAfter;
+        this.executor = executor;
+        this.ticker = ticker;
+        this.meterRegistry = meterRegistry;
+        this.products = new CatalogueCache<>("catalogue.products", delegate::findProduct);
+        this.pages = new CatalogueCache<>("catalogue.products.pages",
+                query -> delegate.findProductsPage(query.filter(), query.after(), query.limit()));
+        this.allProducts = new CatalogueCache<>("catalogue.products.all",
+                query -> delegate.findAllProducts(query.filter()));
+    }
+
+    @Override
+    public List<Product> findAllProducts(String filter) {
+        return this.allProducts.get(new FilterQuery(filter));
+    }
+
+    @Override
+    public ProductsPage findProductsPage(String filter, String after, int limit) {
+        return this.pages.get(new PageQuery(filter, after, limit));
+    }
+
+    @Override
+    public ProductsPage findProductsPageUncached(String filter, String after, int limit) {
+        return this.delegate.findProductsPageUncached(filter, after, limit);
+    }
+
+    @Override
+    public Product createProduct(String title, String details) {
+        Product product = null;
+        try {
+            product = this.delegate.createProduct(title, details);
+            return product;
+        } finally {
+            invalidate(product == null ? List.of() : List.of(product.id()));
+        }
+    }
+
+    @Override
+    public Optional<Product> findProduct(int productId) {
+        return this.products.get(productId);
+    }
+
+    @Override
+    public List<Product> findProducts(Collection<Integer> productIds) {
+        return this.products.getAll(productIds.stream()
+                                .filter(Objects::nonNull)
+                                .distinct()
+                                .sorted()
+                                .toList(),
+                        this::loadProducts)
+                .values()
+                .stream()
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    private Map<Integer, Optional<Product>> loadProducts(Collection<Integer> productIds) {
+        Map<Integer, Optional<Product>> products = new HashMap<>();
+        productIds.forEach(productId -> products.put(productId, Optional.empty()));
+        this.delegate.findProducts(productIds).forEach(product -> products.put(product.id(), Optional.of(product)));
+        return products;
+    }
+
+    @Override
+    public void updateProduct(int productId, String title, String details) {
+        try {
+            this.delegate.updateProduct(productId, title, details);
+        } finally {
+            invalidate(List.of(productId));
+        }
+    }
+
+    @Override
+    public void deleteProduct(int productId) {
+        try {
+            this.delegate.deleteProduct(productId);
+        } finally {
+            invalidate(List.of(productId));
+        }
+    }
+
+    @Override
+    public List<BatchItemResult> createProducts(List<NewProductDto> products) {
+        List<BatchItemResult> results = List.of();
+        try {
+            results = this.delegate.createProducts(products);
+            return results;
+        } finally {
+            invalidate(results.stream().map(BatchItemResult::id).filter(Objects::nonNull).toList());
+        }
+    }
+
+    @Override
+    public List<BatchItemResult> updateProducts(List<BatchUpdateProductDto> products) {
+        try {
+            return this.delegate.updateProducts(products);
+        } finally {
+            invalidate(products.stream()
+                    .filter(Objects::nonNull)
+                    .map(BatchUpdateProductDto::id)
+                    .filter(Objects::nonNull)
+                    .toList());
+        }
+    }
+
+    @Override
+    public List<BatchItemResult> deleteProducts(List<Integer> productIds) {
+        try {
+            return this.delegate.deleteProducts(productIds);
+        } finally {
+            invalidate(productIds.stream().filter(Objects::nonNull).toList());
+        }
+    }
+
+    private void invalidate(Collection<Integer> productIds) {
+        this.products.invalidate(productIds);
+        this.pages.invalidateAll();
+        this.allProducts.invalidateAll();
+    }
+
+    private record Cached<V>(V value, long loadedAt) {
+    }
+
+    private record PageQuery(String filter, String after, int limit) {
+    }
+
+    private record FilterQuery(String filter) {
+    }
+
+    /**
+     * Кеш Caffeine с метриками: стандартные {@code cache.*} от Micrometer, доля попаданий
+     * {@code catalogue.client.cache.hit.ratio}, возраст отданных значений {@code catalogue.client.cache.staleness}
+     * и число отданных устаревших значений {@code catalogue.client.cache.stale.reads}.
+     * <p>
+     * Промах загружается в вызывающем потоке уже после того, как незавершённое значение попало в кеш:
+     * синхронный кеш выполнял бы HTTP-запрос под блокировкой {@code ConcurrentHashMap},
+     * что закрепляет виртуальный поток за потоком-носителем.
+     */
+    private final class CatalogueCache<K, V> {
+
+        private final Function<K, V> loader;
+
+        private final AsyncLoadingCache<K, Cached<V>> cache;
+
+        private final Timer staleness;
+
+        private final Counter staleReads;
+
+        CatalogueCache(String name, Function<K, V> loader) {
+            this.loader = loader;
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(maximumSize)
+                    .expireAfterWrite(timeToLive)
+                    .refreshAfterWrite(refreshAfter)
+                    .executor(executor)
+                    .ticker(ticker)
+                    .recordStats()
+                    .buildAsync(this::load);
+            CaffeineCacheMetrics.monitor(meterRegistry, this.cache, name);
+            Gauge.builder("catalogue.client.cache.hit.ratio", this.cache,
+                            cache -> cache.synchronous().stats().hitRate())
+                    .tag("cache", name)
+                    .register(meterRegistry);
+            this.staleness = Timer.builder("catalogue.client.cache.staleness")
+                    .tag("cache", name)
+                    .register(meterRegistry);
+            this.staleReads = Counter.builder("catalogue.client.cache.stale.reads")
+                    .tag("cache", name)
+                    .register(meterRegistry);
+        }
+
+        V get(K key) {
+            AtomicReference<CompletableFuture<Cached<V>>> created = new AtomicReference<>();
+            CompletableFuture<Cached<V>> future = this.cache.get(key, (k, executor) -> {
+                created.set(new CompletableFuture<>());
+                return created.get();
+            });
+            if (future == created.get()) {
+                try {
+                    future.complete(load(key));
+                } catch (RuntimeException exception) {
+                    future.completeExceptionally(exception);
+                }
+            }
+            return value(future);
+        }
+
+        /**
+         * Отдаёт значения по ключам в порядке {@code keys}; все промахи загружаются одним вызовом {@code bulkLoader}
+         * в вызывающем потоке. Ключи, которые в это время уже загружает другой поток, не запрашиваются повторно.
+         */
+        Map<K, V> getAll(Collection<K> keys, Function<Collection<K>, Map<K, V>> bulkLoader) {
+            Map<K, CompletableFuture<Cached<V>>> futures = new LinkedHashMap<>();
+            Map<K, CompletableFuture<Cached<V>>> created = new LinkedHashMap<>();
+            for (K key : keys) {
+                futures.put(key, this.cache.get(key, (k, executor) ->
+                        created.computeIfAbsent(k, ignored -> new CompletableFuture<>())));
+            }
+            if (!created.isEmpty()) {
+                try {
+                    Map<K, V> values = bulkLoader.apply(List.copyOf(created.keySet()));
+                    long loadedAt = ticker.read();
+                    created.forEach((key, future) -> future.complete(new Cached<>(values.get(key), loadedAt)));
+                } catch (RuntimeException exception) {
+                    created.values().forEach(future -> future.completeExceptionally(exception));
+                }
+            }
+
+            Map<K, V> values = new LinkedHashMap<>();
+            futures.forEach((key, future) -> values.put(key, value(future)));
+            return values;
+        }
+
+        private V value(CompletableFuture<Cached<V>> future) {
+            Cached<V> cached;
+            try {
+                cached = future.join();
+            } catch (CompletionException exception) {
+                if (exception.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw exception;
+            }
+            long age = ticker.read() - cached.loadedAt();
+            this.staleness.record(age, TimeUnit.NANOSECONDS);
+            if (age >= refreshAfter.toNanos()) {
+                this.staleReads.increment();
+            }
+            return cached.value();
+        }
+
+        void invalidate(Collection<K> keys) {
+            this.cache.synchronous().invalidateAll(keys);
+        }
+
+        void invalidateAll() {
+            this.cache.synchronous().invalidateAll();
+        }
+
+        private Cached<V> load(K key) {
+            return new Cached<>(this.loader.apply(key), ticker.read());
+        }
+    }
+}
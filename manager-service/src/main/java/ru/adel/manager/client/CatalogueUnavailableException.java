@@ -0,0 +1,16 @@
+package ru.adel.manager.client;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Каталог не ответил вовремя, отказал или временно отключён circuit breaker'ом,
+ * а последних известных данных для ответа нет.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class CatalogueUnavailableException extends RuntimeException {
+
+    public CatalogueUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,94 @@
+package ru.adel.manager.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Запрашивает ответы в gzip и прозрачно распаковывает их. Apache HttpClient распаковывает ответы сам и снимает
+ * {@code Content-Encoding}, JDK HttpClient (режим h2c) — нет; перехватчик работает с обоими транспортами
+ * и пропускает ответы без сжатия.
+ */
+public class GzipClientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final String GZIP = "gzip";
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!request.getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+            request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, GZIP);
+        }
+
+        ClientHttpResponse response = execution.execute(request, body);
+        String contentEncoding = response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (contentEncoding != null && contentEncoding.trim().equalsIgnoreCase(GZIP)) {
+            return new GzipClientHttpResponse(response);
+        }
+        return response;
+    }
+
+    /**
+     * Ответ с распакованным телом; {@code Content-Encoding} и {@code Content-Length} сжатого тела убраны.
+     */
+    private static final class GzipClientHttpResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse response;
+
+        private final HttpHeaders headers;
+
+        private InputStream body;
+
+        GzipClientHttpResponse(ClientHttpResponse response) {
+            this.response = response;
+            this.headers = new HttpHeaders();
+            this.headers.putAll(response.getHeaders());
+            this.headers.remove(HttpHeaders.CONTENT_ENCODING);
+            this.headers.remove(HttpHeaders.CONTENT_LENGTH);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return this.response.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return this.response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return this.headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (this.body == null) {
+                PushbackInputStream compressed = new PushbackInputStream(this.response.getBody());
+                int firstByte = compressed.read();
+                if (firstByte == -1) {
+                    // у пустого тела нет даже заголовка gzip
+                    this.body = InputStream.nullInputStream();
+                } else {
+                    compressed.unread(firstByte);
+                    this.body = new GZIPInputStream(compressed);
+                }
+            }
+            return this.body;
+        }
+
+        @Override
+        public void close() {
+            this.response.close();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ru.adel.manager.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Объединяет одновременные одинаковые запросы: первый вызов с ключом выполняет запрос в своём потоке,
+ * остальные дожидаются его результата или ошибки. Прерванный ожидающий поток получает
+ * {@link CancellationException}, не затрагивая остальных.
+ */
+final class InFlightRequests<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    private final Counter coalesced;
+
+    InFlightRequests(String name, MeterRegistry meterRegistry) {
+        this.coalesced = Counter.builder("catalogue.client.requests.coalesced")
+                .tag("request", name)
+                .register(meterRegistry);
+    }
+
+    V execute(K key, Supplier<V> request) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = this.calls.putIfAbsent(key, call);
+        if (inFlight != null) {
+            this.coalesced.increment();
+            return await(inFlight);
+        }
+
+        V result;
+        try {
+            result = request.get();
+        } catch (Throwable exception) {
+            this.calls.remove(key, call);
+            call.completeExceptionally(exception);
+            throw exception;
+        }
+        this.calls.remove(key, call);
+        call.complete(result);
+        return result;
+    }
+
+    private V await(CompletableFuture<V> call) {
+        try {
+            return call.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Ожидание запроса к каталогу прервано");
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (exception.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(exception.getCause());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package ru.adel.manager.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.web.client.RestClientResponseException;
+import ru.adel.manager.controller.dto.BatchUpdateProductDto;
+import ru.adel.manager.controller.dto.NewProductDto;
+import ru.adel.manager.domain.entity.BatchItemResult;
+import ru.adel.manager.domain.entity.Product;
+import ru.adel.manager.domain.entity.ProductsPage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Время каждой операции {@link ProductsRestClient} так, как его видят контроллеры, — вместе с кешем, пакетами
+ * и защитным слоем, — в {@code catalogue.client.operations} с тегами {@code operation}, {@code outcome}
+ * и {@code exception}. Сам HTTP-обмен с каталогом пишется отдельно в {@code http.client.requests}.
+ */
+public class MeteredProductsRestClient implements ProductsRestClient {
+
+    private final ProductsRestClient delegate;
+
+    private final MeterRegistry meterRegistry;
+
+    public MeteredProductsRestClient(ProductsRestClient delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<Product> findAllProducts(String filter) {
+        return record("findAllProducts", () -> this.delegate.findAllProducts(filter));
+    }
+
+    @Override
+    public ProductsPage findProductsPage(String filter, String after, int limit) {
+        return record("findProductsPage", () -> this.delegate.findProductsPage(filter, after, limit));
+    }
+
+    @Override
+    public ProductsPage findProductsPageUncached(String filter, String after, int limit) {
+        return record("findProductsPageUncached", () -> this.delegate.findProductsPageUncached(filter, after, limit));
+    }
+
+    @Override
+    public Product createProduct(String title, String details) {
+        return record("createProduct", () -> this.delegate.createProduct(title, details));
+    }
+
+    @Override
+    public Optional<Product> findProduct(int productId) {
+        return record("findProduct", () -> this.delegate.findProduct(productId));
+    }
+
+    @Override
+    public List<Product> findProducts(Collection<Integer> productIds) {
+        return record("findProducts", () -> this.delegate.findProducts(productIds));
+    }
+
+    @Override
+    public void updateProduct(int productId, String title, String details) {
+        record("updateProduct", () -> {
+            this.delegate.updateProduct(productId, title, details);
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteProduct(int productId) {
+        record("deleteProduct", () -> {
+            this.delegate.deleteProduct(productId);
+            return null;
+        });
+    }
+
+    @Override
+    public List<BatchItemResult> createProducts(List<NewProductDto> products) {
+        return record("createProducts", () -> this.delegate.createProducts(products));
+    }
+
+    @Override
+    public List<BatchItemResult> updateProducts(List<BatchUpdateProductDto> products) {
+        return record("updateProducts", () -> this.delegate.updateProducts(products));
+    }
+
+    @Override
+    public List<BatchItemResult> deleteProducts(List<Integer> productIds) {
+        return record("deleteProducts", () -> this.delegate.deleteProducts(productIds));
+    }
+
+    private <T> T record(String operation, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(this.meterRegistry);
+        Outcome outcome = Outcome.SUCCESS;
+        String exceptionName = "none";
+        try {
+            return call.get();
+        } catch (RuntimeException exception) {
+            outcome = outcome(exception);
+            exceptionName = exception.getClass().getSimpleName();
+            throw exception;
+        } finally {
+            sample.stop(Timer.builder("catalogue.client.operations")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome.name())
+                    .tag("exception", exceptionName)
+                    .register(this.meterRegistry));
+        }
+    }
+
+    private static Outcome outcome(RuntimeException exception) {
+        if (exception instanceof BadRequestException) {
+            return Outcome.CLIENT_ERROR;
+        }
+        if (exception instanceof CatalogueUnavailableException) {
+            return Outcome.SERVER_ERROR;
+        }
+        if (exception instanceof RestClientResponseException responseException) {
+            return Outcome.forStatus(responseException.getStatusCode().value());
+        }
+        return Outcome.UNKNOWN;
+    }
+}
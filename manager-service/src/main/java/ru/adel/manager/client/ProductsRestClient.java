@@ -1,19 +1,51 @@
 package ru.adel.manager.client;
 
+import ru.adel.manager.controller.dto.BatchUpdateProductDto;
+import ru.adel.manager.controller.dto.NewProductDto;
+import ru.adel.manager.domain.entity.BatchItemResult;
 import ru.adel.manager.domain.entity.Product;
+import ru.adel.manager.domain.entity.ProductsPage;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ProductsRestClient {
 
+    /**
+     * Товары для списка: у них заполнены только {@code id} и {@code title}, описание не запрашивается.
+     */
     List<Product> findAllProducts(String filter);
 
+    /**
+     * Страница товаров для списка: у них заполнены только {@code id} и {@code title}, описание не запрашивается.
+     */
+    ProductsPage findProductsPage(String filter, String after, int limit);
+
+    /**
+     * Как {@link #findProductsPage(String, String, int)}, но страница не сохраняется ни в каких кешах клиента:
+     * для потоковой выдачи всего списка, где каждая страница читается один раз.
+     */
+    ProductsPage findProductsPageUncached(String filter, String after, int limit);
+
     Product createProduct(String title, String details);
 
     Optional<Product> findProduct(int productId);
 
+    /**
+     * Загружает товары одним запросом к каталогу.
+     *
+     * @return найденные товары, упорядоченные по идентификатору; отсутствующие товары пропускаются
+     */
+    List<Product> findProducts(Collection<Integer> productIds);
+
     void updateProduct(int productId, String title, String details);
 
     void deleteProduct(int productId);
+
+    List<BatchItemResult> createProducts(List<NewProductDto> products);
+
+    List<BatchItemResult> updateProducts(List<BatchUpdateProductDto> products);
+
+    List<BatchItemResult> deleteProducts(List<Integer> productIds);
 }
@@ -0,0 +1,40 @@
+package ru.adel.manager.client;
+
+import ru.adel.manager.controller.dto.BatchUpdateProductDto;
+import ru.adel.manager.controller.dto.NewProductDto;
+import ru.adel.manager.domain.entity.BatchItemResult;
+import ru.adel.manager.domain.entity.Product;
+import ru.adel.manager.domain.entity.ProductsPage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Неблокирующий вариант {@link ProductsRestClient}. Ошибки те же: {@link BadRequestException} при
+ * некорректных данных и {@link java.util.NoSuchElementException} при удалении отсутствующего товара,
+ * а отсутствующий товар в {@link #findProduct(int)} — пустой {@link Mono}.
+ */
+public interface ReactiveProductsRestClient {
+
+    /**
+     * Все товары, подходящие под фильтр; следующая страница запрашивается, когда предыдущая вычитана.
+     */
+    Flux<Product> findAllProducts(String filter);
+
+    Mono<ProductsPage> findProductsPage(String filter, String after, int limit);
+
+    Mono<Product> createProduct(String title, String details);
+
+    Mono<Product> findProduct(int productId);
+
+    Mono<Void> updateProduct(int productId, String title, String details);
+
+    Mono<Void> deleteProduct(int productId);
+
+    Flux<BatchItemResult> createProducts(List<NewProductDto> products);
+
+    Flux<BatchItemResult> updateProducts(List<BatchUpdateProductDto> products);
+
+    Flux<BatchItemResult> deleteProducts(List<Integer> productIds);
+}
@@ -0,0 +1,293 @@
+package ru.adel.manager.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import ru.adel.manager.controller.dto.BatchUpdateProductDto;
+import ru.adel.manager.controller.dto.NewProductDto;
+import ru.adel.manager.domain.entity.BatchItemResult;
+import ru.adel.manager.domain.entity.Product;
+import ru.adel.manager.domain.entity.ProductsPage;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Защитный слой над {@link ProductsRestClient}. Каждый вызов выполняется на {@code executor} и ограничен
+ * тайм-аутом своей операции, число одновременных обращений к каталогу ограничено {@link Bulkhead},
+ * а {@link CircuitBreaker} после серии отказов перестаёт пропускать вызовы и через заданное время
+ * пропускает пробные.
+ * <p>
+ * При отказе чтения отдают последние успешно полученные данные, если они есть; записи и чтения без таких данных
+ * сразу завершаются {@link CatalogueUnavailableException}. Переходы circuit breaker'а считаются в
+ * {@code catalogue.client.circuit.transitions}, отклонённые вызовы — в {@code catalogue.client.rejections},
+ * ответы из последних известных данных — в {@code catalogue.client.fallbacks}.
+ */
+@Slf4j
+public class ResilientProductsRestClient implements ProductsRestClient {
+
+    private final ProductsRestClient delegate;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final Bulkhead bulkhead;
+
+    private final Timeouts timeouts;
+
+    private final Executor executor;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<Integer, Optional<Product>> lastKnownProducts;
+
+    private final Cache<PageQuery, ProductsPage> lastKnownPages;
+
+    private final Cache<String, List<Product>> lastKnownAllProducts;
+
+    public ResilientProductsRestClient(ProductsRestClient delegate, CircuitBreaker circuitBreaker, Bulkhead bulkhead,
+                                       Timeouts timeouts, long lastKnownMaximumSize, Executor executor,
+                                       MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.timeouts = timeouts;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.lastKnownProducts = Caffeine.newBuilder().maximumSize(lastKnownMaximumSize).build();
+        this.lastKnownPages = Caffeine.newBuilder().maximumSize(lastKnownMaximumSize).build();
+        this.lastKnownAllProducts = Caffeine.newBuilder().maximumSize(lastKnownMaximumSize).build();
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            log.warn("Circuit breaker каталога: {}", event.getStateTransition());
+            Counter.builder("catalogue.client.circuit.transitions")
+                    .tag("from", event.getStateTransition().getFromState().name())
+                    .tag("to", event.getStateTransition().getToState().name())
+                    .register(meterRegistry)
+                    .increment();
+        });
+    }
+
+    @Override
+    public List<Product> findAllProducts(String filter) {
+        return read("findAllProducts", this.timeouts.findAll(), this.lastKnownAllProducts,
+                filter == null ? "" : filter, () -> this.delegate.findAllProducts(filter));
+    }
+
+    @Override
+    public ProductsPage findProductsPage(String filter, String after, int limit) {
+        return read("findProductsPage", this.timeouts.find(), this.lastKnownPages, new PageQuery(filter, after, limit),
+                () -> this.delegate.findProductsPage(filter, after, limit));
+    }
+
+    /**
+     * Без запасной копии: при отказе каталога потоковая выдача обрывается, а не отдаёт устаревшие страницы.
+     */
+    @Override
+    public ProductsPage findProductsPageUncached(String filter, String after, int limit) {
+        return call("findProductsPageUncached", this.timeouts.find(),
+                () -> this.delegate.findProductsPageUncached(filter, after, limit));
+    }
+
+    @Override
+    public Product createProduct(String title, String details) {
+        Product product = call("createProduct", this.timeouts.write(),
+                () -> this.delegate.createProduct(title, details));
+        forgetLists();
+        return product;
+    }
+
+    @Override
+    public Optional<Product> findProduct(int productId) {
+        return read("findProduct", this.timeouts.find(), this.lastKnownProducts, productId,
+                () -> this.delegate.findProduct(productId));
+    }
+
+    @Override
+    public List<Product> findProducts(Collection<Integer> productIds) {
+        List<Integer> ids = productIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList();
+        try {
+            List<Product> products = call("findProducts", this.timeouts.find(),
+                    () -> this.delegate.findProducts(ids));
+            Map<Integer, Optional<Product>> found = new HashMap<>();
+            ids.forEach(productId -> found.put(productId, Optional.empty()));
+            products.forEach(product -> found.put(product.id(), Optional.of(product)));
+            this.lastKnownProducts.putAll(found);
+            return products;
+        } catch (CatalogueUnavailableException exception) {
+            Map<Integer, Optional<Product>> lastKnown = this.lastKnownProducts.getAllPresent(ids);
+            if (lastKnown.size() < ids.size()) {
+                throw exception;
+            }
+            fallback("findProducts", exception);
+            return ids.stream()
+                    .flatMap(productId -> lastKnown.get(productId).stream())
+                    .toList();
+        }
+    }
+
+    @Override
+    public void updateProduct(int productId, String title, String details) {
+        forget(List.of(productId));
+        call("updateProduct", this.timeouts.write(), () -> {
+            this.delegate.updateProduct(productId, title, details);
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteProduct(int productId) {
+        forget(List.of(productId));
+        call("deleteProduct", this.timeouts.write(), () -> {
+            this.delegate.deleteProduct(productId);
+            return null;
+        });
+    }
+
+    @Override
+    public List<BatchItemResult> createProducts(List<NewProductDto> products) {
+        List<BatchItemResult> results = call("createProducts", this.timeouts.batch(),
+                () -> this.delegate.createProducts(products));
+        forgetLists();
+        return results;
+    }
+
+    @Override
+    public List<BatchItemResult> updateProducts(List<BatchUpdateProductDto> products) {
+        forget(products.stream()
+                .filter(Objects::nonNull)
+                .map(BatchUpdateProductDto::id)
+                .filter(Objects::nonNull)
+                .toList());
+        return call("updateProducts", this.timeouts.batch(), () -> this.delegate.updateProducts(products));
+    }
+
+    @Override
+    public List<BatchItemResult> deleteProducts(List<Integer> productIds) {
+        forget(productIds.stream().filter(Objects::nonNull).toList());
+        return call("deleteProducts", this.timeouts.batch(), () -> this.delegate.deleteProducts(productIds));
+    }
+
+    private <K, V> V read(String operation, Duration timeout, Cache<K, V> lastKnown, K key, Supplier<V> call) {
+        try {
+            V result = call(operation, timeout, call);
+            lastKnown.put(key, result);
+            return result;
+        } catch (CatalogueUnavailableException exception) {
+            V result = lastKnown.getIfPresent(key);
+            if (result == null) {
+                throw exception;
+            }
+            fallback(operation, exception);
+            return result;
+        }
+    }
+
+    private void fallback(String operation, CatalogueUnavailableException exception) {
+        log.debug("Каталог недоступен, {} отвечает последними известными данными", operation, exception);
+        Counter.builder("catalogue.client.fallbacks")
+                .tag("operation", operation)
+                .register(this.meterRegistry)
+                .increment();
+    }
+
+    private <V> V call(String operation, Duration timeout, Supplier<V> call) {
+        try {
+            return this.circuitBreaker.executeCallable(() -> {
+                // разрешение берётся до отправки вызова, чтобы при заполненном bulkhead не создавать поток
+                // ради одного отказа; освобождает его поток вызова, поэтому брошенный по тайм-ауту вызов
+                // занимает место в bulkhead, пока не завершится
+                this.bulkhead.acquirePermission();
+                CompletableFuture<V> result;
+                try {
+                    result = CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return call.get();
+                        } finally {
+                            this.bulkhead.onComplete();
+                        }
+                    }, this.executor);
+                } catch (RuntimeException exception) {
+                    this.bulkhead.onComplete();
+                    throw exception;
+                }
+                try {
+                    return result.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException exception) {
+                    result.cancel(true);
+                    throw exception;
+                } catch (ExecutionException exception) {
+                    if (exception.getCause() instanceof Exception cause) {
+                        throw cause;
+                    }
+                    throw exception;
+                }
+            });
+        } catch (CallNotPermittedException exception) {
+            throw unavailable(operation, "circuit-open", exception);
+        } catch (BulkheadFullException exception) {
+            throw unavailable(operation, "bulkhead-full", exception);
+        } catch (TimeoutException exception) {
+            throw unavailable(operation, "timeout", exception);
+        } catch (ResourceAccessException | HttpServerErrorException exception) {
+            throw new CatalogueUnavailableException("Каталог не выполнил %s".formatted(operation), exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Ожидание ответа каталога прервано");
+        } catch (RuntimeException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private CatalogueUnavailableException unavailable(String operation, String reason, Exception cause) {
+        Counter.builder("catalogue.client.rejections")
+                .tag("operation", operation)
+                .tag("reason", reason)
+                .register(this.meterRegistry)
+                .increment();
+        return new CatalogueUnavailableException("Каталог не выполнил %s: %s".formatted(operation, reason), cause);
+    }
+
+    private void forget(List<Integer> productIds) {
+        this.lastKnownProducts.invalidateAll(productIds);
+        forgetLists();
+    }
+
+    private void forgetLists() {
+        this.lastKnownPages.invalidateAll();
+        this.lastKnownAllProducts.invalidateAll();
+    }
+
+    /**
+     * Тайм-ауты операций: чтение товара или страницы, чтение всех товаров постранично, одиночная запись и пакет.
+     */
+    public record Timeouts(Duration find, Duration findAll, Duration write, Duration batch) {
+    }
+
+    private record PageQuery(String filter, String after, int limit) {
+    }
+}
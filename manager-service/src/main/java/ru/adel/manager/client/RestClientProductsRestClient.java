@@ -1,35 +1,126 @@
 package ru.adel.manager.client;
 
+import ru.adel.manager.controller.dto.BatchUpdateProductDto;
 import ru.adel.manager.controller.dto.NewProductDto;
 import ru.adel.manager.controller.dto.UpdateProductDto;
+import ru.adel.manager.domain.entity.BatchItemResult;
 import ru.adel.manager.domain.entity.Product;
-import lombok.RequiredArgsConstructor;
+import ru.adel.manager.domain.entity.ProductsPage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
-@RequiredArgsConstructor
 public class RestClientProductsRestClient implements ProductsRestClient {
 
     private static final ParameterizedTypeReference<List<Product>> PRODUCTS_TYPE_REFERENCE =
             new ParameterizedTypeReference<>() {
             };
 
+    private static final ParameterizedTypeReference<List<BatchItemResult>> BATCH_RESULTS_TYPE_REFERENCE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final int PAGE_SIZE = 500;
+
+    // список товаров показывает только идентификатор и название, описание каталог для него не читает
+    private static final String LIST_FIELDS = "id,title";
+
+    private static final int MAX_REVALIDATED_PRODUCTS = 1000;
+
     private final RestClient restClient;
 
+    private final MediaType wireFormat;
+
+    private final MediaType[] acceptableMediaTypes;
+
+    private final Cache<Integer, VersionedProduct> lastSeenProducts = Caffeine.newBuilder()
+            .maximumSize(MAX_REVALIDATED_PRODUCTS)
+            .build();
+
+    private final InFlightRequests<String, List<Product>> allProductsRequests;
+
+    private final InFlightRequests<PageQuery, ProductsPage> pageRequests;
+
+    private final InFlightRequests<Integer, Optional<Product>> productRequests;
+
+    public RestClientProductsRestClient(RestClient restClient) {
+        this(restClient, Metrics.globalRegistry);
+    }
+
+    public RestClientProductsRestClient(RestClient restClient, MeterRegistry meterRegistry) {
+        this(restClient, MediaType.APPLICATION_JSON, meterRegistry);
+    }
+
+    /**
+     * @param wireFormat формат тел запросов и предпочитаемый формат ответов, например Smile;
+     *                   ответы в JSON, включая описания ошибок, читаются при любом формате
+     */
+    public RestClientProductsRestClient(RestClient restClient, MediaType wireFormat, MeterRegistry meterRegistry) {
+        this.restClient = restClient;
+        this.wireFormat = wireFormat;
+        this.acceptableMediaTypes = wireFormat.equalsTypeAndSubtype(MediaType.APPLICATION_JSON)
+                ? new MediaType[]{MediaType.APPLICATION_JSON}
+                : new MediaType[]{wireFormat, MediaType.APPLICATION_JSON};
+        this.allProductsRequests = new InFlightRequests<>("findAllProducts", meterRegistry);
+        this.pageRequests = new InFlightRequests<>("findProductsPage", meterRegistry);
+        this.productRequests = new InFlightRequests<>("findProduct", meterRegistry);
+    }
+
     @Override
     public List<Product> findAllProducts(String filter) {
-        return this.restClient
+        return this.allProductsRequests.execute(filter == null ? "" : filter, () -> fetchAllProducts(filter));
+    }
+
+    private List<Product> fetchAllProducts(String filter) {
+        List<Product> products = new ArrayList<>();
+        String after = null;
+        do {
+            ProductsPage page = findProductsPage(filter, after, PAGE_SIZE);
+            products.addAll(page.products());
+            after = page.nextCursor();
+        } while (after != null);
+        return products;
+    }
+
+    @Override
+    public ProductsPage findProductsPage(String filter, String after, int limit) {
+        return this.pageRequests.execute(new PageQuery(filter, after, limit),
+                () -> fetchProductsPage(filter, after, limit));
+    }
+
+    @Override
+    public ProductsPage findProductsPageUncached(String filter, String after, int limit) {
+        return fetchProductsPage(filter, after, limit);
+    }
+
+    private ProductsPage fetchProductsPage(String filter, String after, int limit) {
+        ResponseEntity<List<Product>> response = this.restClient
                 .get()
-                .uri("/catalogue-api/products?filter={filter}", filter)
+                .uri("/catalogue-api/products?filter={filter}&after={after}&limit={limit}&fields={fields}",
+                        filter, after, limit, LIST_FIELDS)
+                .accept(this.acceptableMediaTypes)
                 .retrieve()
-                .body(PRODUCTS_TYPE_REFERENCE);
+                .toEntity(PRODUCTS_TYPE_REFERENCE);
+        return new ProductsPage(response.getBody(), response.getHeaders().getFirst(NEXT_CURSOR_HEADER));
     }
 
     @Override
@@ -38,7 +129,8 @@ public class RestClientProductsRestClient implements ProductsRestClient {
             return this.restClient
                     .post()
                     .uri("/catalogue-api/products")
-                    .contentType(MediaType.APPLICATION_JSON)
+                    .contentType(this.wireFormat)
+                    .accept(this.acceptableMediaTypes)
                     .body(new NewProductDto(title, details))
                     .retrieve()
                     .body(Product.class);
@@ -50,23 +142,70 @@ public class RestClientProductsRestClient implements ProductsRestClient {
 
     @Override
     public Optional<Product> findProduct(int productId) {
+        return this.productRequests.execute(productId, () -> fetchProduct(productId));
+    }
+
+    @Override
+    public List<Product> findProducts(Collection<Integer> productIds) {
+        List<Integer> ids = productIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList();
+        List<Product> products = new ArrayList<>(ids.size());
+        // каталог принимает не больше PAGE_SIZE идентификаторов за запрос
+        for (int from = 0; from < ids.size(); from += PAGE_SIZE) {
+            products.addAll(this.restClient.get()
+                    .uri("/catalogue-api/products?ids={ids}", ids.subList(from, Math.min(from + PAGE_SIZE, ids.size()))
+                            .stream()
+                            .map(String::valueOf)
+                            .collect(Collectors.joining(",")))
+                    .accept(this.acceptableMediaTypes)
+                    .retrieve()
+                    .body(PRODUCTS_TYPE_REFERENCE));
+        }
+        return products;
+    }
+
+    private Optional<Product> fetchProduct(int productId) {
+        VersionedProduct lastSeen = this.lastSeenProducts.getIfPresent(productId);
         try {
-            return Optional.ofNullable(this.restClient.get()
+            ResponseEntity<Product> response = this.restClient.get()
                     .uri("/catalogue-api/products/{productId}", productId)
+                    .accept(this.acceptableMediaTypes)
+                    .headers(headers -> {
+                        if (lastSeen != null) {
+                            headers.setIfNoneMatch(lastSeen.eTag());
+                        }
+                    })
                     .retrieve()
-                    .body(Product.class));
+                    .toEntity(Product.class);
+            if (lastSeen != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                return Optional.of(lastSeen.product());
+            }
+
+            Product product = response.getBody();
+            String eTag = response.getHeaders().getETag();
+            if (product != null && eTag != null) {
+                this.lastSeenProducts.put(productId, new VersionedProduct(eTag, product));
+            } else {
+                this.lastSeenProducts.invalidate(productId);
+            }
+            return Optional.ofNullable(product);
         } catch (HttpClientErrorException.NotFound exception) {
+            this.lastSeenProducts.invalidate(productId);
             return Optional.empty();
         }
     }
 
     @Override
     public void updateProduct(int productId, String title, String details) {
+        this.lastSeenProducts.invalidate(productId);
         try {
             this.restClient
                     .patch()
                     .uri("/catalogue-api/products/{productId}", productId)
-                    .contentType(MediaType.APPLICATION_JSON)
+                    .contentType(this.wireFormat)
                     .body(new UpdateProductDto(title, details))
                     .retrieve()
                     .toBodilessEntity();
@@ -78,6 +217,7 @@ public class RestClientProductsRestClient implements ProductsRestClient {
 
     @Override
     public void deleteProduct(int productId) {
+        this.lastSeenProducts.invalidate(productId);
         try {
             this.restClient
                     .delete()
@@ -88,4 +228,47 @@ public class RestClientProductsRestClient implements ProductsRestClient {
             throw new NoSuchElementException(exception);
         }
     }
+
+    @Override
+    public List<BatchItemResult> createProducts(List<NewProductDto> products) {
+        return sendBatch(HttpMethod.POST, products);
+    }
+
+    @Override
+    public List<BatchItemResult> updateProducts(List<BatchUpdateProductDto> products) {
+        this.lastSeenProducts.invalidateAll(products.stream()
+                .filter(Objects::nonNull)
+                .map(BatchUpdateProductDto::id)
+                .filter(Objects::nonNull)
+                .toList());
+        return sendBatch(HttpMethod.PATCH, products);
+    }
+
+    @Override
+    public List<BatchItemResult> deleteProducts(List<Integer> productIds) {
+        this.lastSeenProducts.invalidateAll(productIds.stream().filter(Objects::nonNull).toList());
+        return sendBatch(HttpMethod.DELETE, productIds);
+    }
+
+    private List<BatchItemResult> sendBatch(HttpMethod method, List<?> payload) {
+        try {
+            return this.restClient
+                    .method(method)
+                    .uri("/catalogue-api/products/batch")
+                    .contentType(this.wireFormat)
+                    .accept(this.acceptableMediaTypes)
+                    .body(payload)
+                    .retrieve()
+                    .body(BATCH_RESULTS_TYPE_REFERENCE);
+        } catch (HttpClientErrorException.BadRequest exception) {
+            ProblemDetail problemDetail = exception.getResponseBodyAs(ProblemDetail.class);
+            throw new BadRequestException(List.of(problemDetail.getDetail()));
+        }
+    }
+
+    private record VersionedProduct(String eTag, Product product) {
+    }
+
+    private record PageQuery(String filter, String after, int limit) {
+    }
 }
@@ -0,0 +1,159 @@
+package ru.adel.manager.client;
+
+import ru.adel.manager.controller.dto.BatchUpdateProductDto;
+import ru.adel.manager.controller.dto.NewProductDto;
+import ru.adel.manager.controller.dto.UpdateProductDto;
+import ru.adel.manager.domain.entity.BatchItemResult;
+import ru.adel.manager.domain.entity.Product;
+import ru.adel.manager.domain.entity.ProductsPage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+@RequiredArgsConstructor
+public class WebClientProductsRestClient implements ReactiveProductsRestClient {
+
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final int PAGE_SIZE = 500;
+
+    private final WebClient webClient;
+
+    /**
+     * Следующие страницы запрашиваются из потока Netty, где {@link SecurityContextHolder} пуст, поэтому
+     * пользователь потока, подписавшегося на список, кладётся в контекст Reactor для всех страниц.
+     */
+    @Override
+    public Flux<Product> findAllProducts(String filter) {
+        return Flux.defer(() -> {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            Flux<Product> products = findAllProducts(filter, null);
+            if (authentication == null) {
+                return products;
+            }
+
+            Context securityContext = ReactiveSecurityContextHolder.withAuthentication(authentication);
+            return products.contextWrite(context -> context.hasKey(SecurityContext.class)
+                    ? context
+                    : context.putAll(securityContext.readOnly()));
+        });
+    }
+
+    private Flux<Product> findAllProducts(String filter, String after) {
+        return this.webClient.get()
+                .uri("/catalogue-api/products?filter={filter}&after={after}&limit={limit}", filter, after, PAGE_SIZE)
+                .retrieve()
+                .toEntityFlux(Product.class)
+                .flatMapMany(response -> {
+                    String nextCursor = nextCursor(response);
+                    return nextCursor == null
+                            ? response.getBody()
+                            : response.getBody().concatWith(Flux.defer(() -> findAllProducts(filter, nextCursor)));
+                });
+    }
+
+    @Override
+    public Mono<ProductsPage> findProductsPage(String filter, String after, int limit) {
+        return this.webClient.get()
+                .uri("/catalogue-api/products?filter={filter}&after={after}&limit={limit}", filter, after, limit)
+                .retrieve()
+                .toEntityList(Product.class)
+                .map(response -> new ProductsPage(response.getBody(), nextCursor(response)));
+    }
+
+    @Override
+    public Mono<Product> createProduct(String title, String details) {
+        return this.webClient.post()
+                .uri("/catalogue-api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new NewProductDto(title, details))
+                .retrieve()
+                .onStatus(HttpStatus.BAD_REQUEST::isSameCodeAs, validationErrors())
+                .bodyToMono(Product.class);
+    }
+
+    @Override
+    public Mono<Product> findProduct(int productId) {
+        return this.webClient.get()
+                .uri("/catalogue-api/products/{productId}", productId)
+                .retrieve()
+                .bodyToMono(Product.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, exception -> Mono.empty());
+    }
+
+    @Override
+    public Mono<Void> updateProduct(int productId, String title, String details) {
+        return this.webClient.patch()
+                .uri("/catalogue-api/products/{productId}", productId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UpdateProductDto(title, details))
+                .retrieve()
+                .onStatus(HttpStatus.BAD_REQUEST::isSameCodeAs, validationErrors())
+                .toBodilessEntity()
+                .then();
+    }
+
+    @Override
+    public Mono<Void> deleteProduct(int productId) {
+        return this.webClient.delete()
+                .uri("/catalogue-api/products/{productId}", productId)
+                .retrieve()
+                .toBodilessEntity()
+                .onErrorMap(WebClientResponseException.NotFound.class, NoSuchElementException::new)
+                .then();
+    }
+
+    @Override
+    public Flux<BatchItemResult> createProducts(List<NewProductDto> products) {
+        return sendBatch(HttpMethod.POST, products);
+    }
+
+    @Override
+    public Flux<BatchItemResult> updateProducts(List<BatchUpdateProductDto> products) {
+        return sendBatch(HttpMethod.PATCH, products);
+    }
+
+    @Override
+    public Flux<BatchItemResult> deleteProducts(List<Integer> productIds) {
+        return sendBatch(HttpMethod.DELETE, productIds);
+    }
+
+    private Flux<BatchItemResult> sendBatch(HttpMethod method, List<?> payload) {
+        return this.webClient.method(method)
+                .uri("/catalogue-api/products/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(payload)
+                .retrieve()
+                .onStatus(HttpStatus.BAD_REQUEST::isSameCodeAs, response -> response.bodyToMono(ProblemDetail.class)
+                        .map(problemDetail -> new BadRequestException(List.of(problemDetail.getDetail()))))
+                .bodyToFlux(BatchItemResult.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<ClientResponse, Mono<? extends Throwable>> validationErrors() {
+        return response -> response.bodyToMono(ProblemDetail.class)
+                .map(problemDetail ->
+                        new BadRequestException((List<String>) problemDetail.getProperties().get("errors")));
+    }
+
+    private static String nextCursor(ResponseEntity<?> response) {
+        return response.getHeaders().getFirst(NEXT_CURSOR_HEADER);
+    }
+}
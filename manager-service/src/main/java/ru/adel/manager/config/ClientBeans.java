@@ -1,32 +1,291 @@
 package ru.adel.manager.config;
 
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.micrometer.observation.ObservationRegistry;
+import io.netty.channel.ChannelOption;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.CompositeTaskDecorator;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.security.oauth2.client.AuthorizedClientServiceOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientProviderBuilder;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.security.oauth2.client.web.DefaultOAuth2AuthorizedClientManager;
 import org.springframework.security.oauth2.client.web.OAuth2AuthorizedClientRepository;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+import ru.adel.manager.client.BatchingProductsRestClient;
+import ru.adel.manager.client.CachingProductsRestClient;
+import ru.adel.manager.client.GzipClientHttpRequestInterceptor;
+import ru.adel.manager.client.MeteredProductsRestClient;
+import ru.adel.manager.client.ProductsRestClient;
+import ru.adel.manager.client.ReactiveProductsRestClient;
+import ru.adel.manager.client.ResilientProductsRestClient;
 import ru.adel.manager.client.RestClientProductsRestClient;
+import ru.adel.manager.client.WebClientProductsRestClient;
+import ru.adel.manager.security.OAuth2AccessTokenCache;
 import ru.adel.manager.security.OAuthClientHttpRequestInterceptor;
+import ru.adel.manager.security.OAuthExchangeFilterFunction;
+import ru.adel.manager.security.OAuthTaskDecorator;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
 
 @Configuration
 public class ClientBeans {
 
+    /**
+     * Транспорт до catalogue-service: пул соединений Apache HttpClient с метриками
+     * {@code httpcomponents.httpclient.pool.*}, либо HTTP/2 без TLS (h2c) через JDK HttpClient,
+     * который мультиплексирует запросы в одном соединении. При {@code selmag.services.catalogue.compression: false}
+     * Apache HttpClient не запрашивает сжатые ответы.
+     */
     @Bean
-    public RestClientProductsRestClient productsRestClient(
-            @Value("${selmag.services.catalogue.uri:http://localhost:8081}") String catalogueBaseUri,
+    public ClientHttpRequestFactory catalogueClientHttpRequestFactory(
+            @Value("${selmag.services.catalogue.max-connections:50}") int maxConnections,
+            @Value("${selmag.services.catalogue.idle-eviction:30s}") Duration idleEviction,
+            @Value("${selmag.services.catalogue.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${selmag.services.catalogue.read-timeout:5s}") Duration readTimeout,
+            @Value("${selmag.services.catalogue.h2c:false}") boolean h2c,
+            @Value("${selmag.services.catalogue.compression:true}") boolean compression,
+            MeterRegistry meterRegistry) {
+        if (h2c) {
+            JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(connectTimeout)
+                    .build());
+            requestFactory.setReadTimeout(readTimeout);
+            return requestFactory;
+        }
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "catalogue").bindTo(meterRegistry);
+        HttpClientBuilder httpClientBuilder = HttpClients.custom();
+        if (!compression) {
+            httpClientBuilder.disableContentCompression();
+        }
+        return new HttpComponentsClientHttpRequestFactory(httpClientBuilder
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(connectTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleEviction))
+                .build());
+    }
+
+    @Bean
+    public OAuth2AccessTokenCache catalogueAccessTokenCache(
             ClientRegistrationRepository clientRegistrationRepository,
             OAuth2AuthorizedClientRepository authorizedClientRepository,
-            @Value("${selmag.services.catalogue.registration-id:keycloak}") String registrationId) {
-        return new RestClientProductsRestClient(RestClient.builder()
-                .baseUrl(catalogueBaseUri)
-                .requestInterceptor(
-                        new OAuthClientHttpRequestInterceptor(
-                                new DefaultOAuth2AuthorizedClientManager(clientRegistrationRepository,
-                                        authorizedClientRepository), registrationId))
+            OAuth2AuthorizedClientService authorizedClientService,
+            @Value("${selmag.services.catalogue.registration-id:keycloak}") String registrationId,
+            @Value("${selmag.services.catalogue.token.refresh-ahead:1m}") Duration tokenRefreshAhead,
+            @Value("${selmag.services.catalogue.token.maximum-size:10000}") long tokenCacheMaximumSize,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor taskExecutor,
+            MeterRegistry meterRegistry) {
+        DefaultOAuth2AuthorizedClientManager requestAuthorizedClientManager =
+                new DefaultOAuth2AuthorizedClientManager(clientRegistrationRepository, authorizedClientRepository);
+        AuthorizedClientServiceOAuth2AuthorizedClientManager backgroundAuthorizedClientManager =
+                new AuthorizedClientServiceOAuth2AuthorizedClientManager(clientRegistrationRepository,
+                        authorizedClientService);
+        backgroundAuthorizedClientManager.setAuthorizedClientProvider(OAuth2AuthorizedClientProviderBuilder.builder()
+                .refreshToken(refreshToken -> refreshToken.clockSkew(tokenRefreshAhead))
+                .clientCredentials(clientCredentials -> clientCredentials.clockSkew(tokenRefreshAhead))
                 .build());
+        // токен для вызова каталога от имени HTTP-запроса получается ещё в потоке запроса (см. OAuthTaskDecorator),
+        // поэтому берётся из сессии пользователя; фоновые обновления кеша и токенов идут в потоках
+        // applicationTaskExecutor без атрибутов запроса, там клиент берётся из OAuth2AuthorizedClientService
+        OAuth2AuthorizedClientManager authorizedClientManager = authorizeRequest ->
+                RequestContextHolder.getRequestAttributes() != null
+                        ? requestAuthorizedClientManager.authorize(authorizeRequest)
+                        : backgroundAuthorizedClientManager.authorize(authorizeRequest);
+
+        return new OAuth2AccessTokenCache(authorizedClientManager, registrationId, tokenRefreshAhead,
+                tokenCacheMaximumSize, taskExecutor, meterRegistry);
+    }
+
+    /**
+     * Boot применяет декоратор к applicationTaskExecutor и {@link SimpleAsyncTaskExecutorBuilder}: фоновые
+     * обновления кеша товаров и токенов продолжают трассу и MDC запроса, который их запустил.
+     */
+    @Bean
+    public TaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+
+    @Bean
+    public CircuitBreaker catalogueCircuitBreaker(
+            @Value("${selmag.services.catalogue.resilience.circuit-breaker.failure-rate-threshold:50}")
+            float failureRateThreshold,
+            @Value("${selmag.services.catalogue.resilience.circuit-breaker.sliding-window-size:20}")
+            int slidingWindowSize,
+            @Value("${selmag.services.catalogue.resilience.circuit-breaker.minimum-number-of-calls:10}")
+            int minimumNumberOfCalls,
+            @Value("${selmag.services.catalogue.resilience.circuit-breaker.wait-duration-in-open-state:10s}")
+            Duration waitDurationInOpenState,
+            @Value("${selmag.services.catalogue.resilience.circuit-breaker.permitted-calls-in-half-open-state:3}")
+            int permittedCallsInHalfOpenState,
+            MeterRegistry meterRegistry) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .waitDurationInOpenState(waitDurationInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(permittedCallsInHalfOpenState)
+                // ошибки валидации и отсутствующие товары — нормальные ответы каталога, а не его отказ
+                .recordExceptions(TimeoutException.class, ResourceAccessException.class,
+                        HttpServerErrorException.class)
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry.circuitBreaker("catalogue");
     }
-}
 
+    @Bean
+    public Bulkhead catalogueBulkhead(
+            @Value("${selmag.services.catalogue.resilience.bulkhead.max-concurrent-calls:50}") int maxConcurrentCalls,
+            @Value("${selmag.services.catalogue.resilience.bulkhead.max-wait-duration:0s}") Duration maxWaitDuration,
+            MeterRegistry meterRegistry) {
+        BulkheadRegistry registry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(maxWaitDuration)
+                .build());
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry.bulkhead("catalogue");
+    }
 
+    /**
+     * По умолчанию с каталогом обмениваемся Smile — двоичной формой JSON, которая компактнее и быстрее
+     * разбирается на списках товаров; {@code selmag.services.catalogue.wire-format: application/json}
+     * возвращает текстовый JSON.
+     */
+    @Bean
+    public ProductsRestClient productsRestClient(
+            @Value("${selmag.services.catalogue.uri:http://localhost:8081}") String catalogueBaseUri,
+            @Value("${selmag.services.catalogue.wire-format:application/x-jackson-smile}") String wireFormat,
+            @Value("${selmag.services.catalogue.compression:true}") boolean compression,
+            ClientHttpRequestFactory catalogueClientHttpRequestFactory,
+            OAuth2AccessTokenCache catalogueAccessTokenCache,
+            CircuitBreaker catalogueCircuitBreaker,
+            Bulkhead catalogueBulkhead,
+            @Value("${selmag.services.catalogue.resilience.timeout.find:2s}") Duration findTimeout,
+            @Value("${selmag.services.catalogue.resilience.timeout.find-all:10s}") Duration findAllTimeout,
+            @Value("${selmag.services.catalogue.resilience.timeout.write:5s}") Duration writeTimeout,
+            @Value("${selmag.services.catalogue.resilience.timeout.batch:10s}") Duration batchTimeout,
+            @Value("${selmag.services.catalogue.batch.window:0s}") Duration batchWindow,
+            @Value("${selmag.services.catalogue.batch.max-size:100}") int batchMaxSize,
+            @Value("${selmag.services.catalogue.cache.maximum-size:1000}") long cacheMaximumSize,
+            @Value("${selmag.services.catalogue.cache.time-to-live:10m}") Duration cacheTimeToLive,
+            @Value("${selmag.services.catalogue.cache.refresh-after:30s}") Duration cacheRefreshAfter,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor taskExecutor,
+            SimpleAsyncTaskExecutorBuilder simpleAsyncTaskExecutorBuilder,
+            TaskDecorator contextPropagatingTaskDecorator,
+            ObservationRegistry observationRegistry,
+            MeterRegistry meterRegistry) {
+        OAuthClientHttpRequestInterceptor oAuthInterceptor =
+                new OAuthClientHttpRequestInterceptor(catalogueAccessTokenCache);
+        oAuthInterceptor.setObservationRegistry(observationRegistry);
+        RestClientProductsRestClient restClientProductsRestClient = new RestClientProductsRestClient(
+                RestClient.builder()
+                        .baseUrl(catalogueBaseUri)
+                        .requestFactory(catalogueClientHttpRequestFactory)
+                        .observationRegistry(observationRegistry)
+                        .requestInterceptor(oAuthInterceptor)
+                        .requestInterceptors(interceptors -> {
+                            if (compression) {
+                                interceptors.add(new GzipClientHttpRequestInterceptor());
+                            }
+                        })
+                        .build(), MediaType.parseMediaType(wireFormat), meterRegistry);
+        // вызов, не уложившийся в тайм-аут, дорабатывает в своём потоке, поэтому пул потоков здесь не годится
+        ResilientProductsRestClient resilientProductsRestClient = new ResilientProductsRestClient(
+                restClientProductsRestClient, catalogueCircuitBreaker, catalogueBulkhead,
+                new ResilientProductsRestClient.Timeouts(findTimeout, findAllTimeout, writeTimeout, batchTimeout),
+                cacheMaximumSize,
+                new DelegatingSecurityContextExecutor(simpleAsyncTaskExecutorBuilder
+                        .threadNamePrefix("catalogue-")
+                        .taskDecorator(new CompositeTaskDecorator(List.of(contextPropagatingTaskDecorator,
+                                new OAuthTaskDecorator(oAuthInterceptor))))
+                        .build()),
+                meterRegistry);
+        // при ненулевом selmag.services.catalogue.batch.window промахи кеша по отдельным товарам
+        // уходят в каталог общими пакетами
+        return new MeteredProductsRestClient(new CachingProductsRestClient(
+                new BatchingProductsRestClient(resilientProductsRestClient, batchWindow, batchMaxSize, meterRegistry),
+                cacheMaximumSize, cacheTimeToLive, cacheRefreshAfter,
+                new DelegatingSecurityContextExecutor(taskExecutor), meterRegistry), meterRegistry);
+    }
+
+    /**
+     * Неблокирующий клиент catalogue-service на Reactor Netty; токены берутся из того же
+     * {@link OAuth2AccessTokenCache}, что и у блокирующего клиента.
+     */
+    @Bean
+    public ReactiveProductsRestClient reactiveProductsRestClient(
+            @Value("${selmag.services.catalogue.uri:http://localhost:8081}") String catalogueBaseUri,
+            @Value("${selmag.services.catalogue.max-connections:50}") int maxConnections,
+            @Value("${selmag.services.catalogue.idle-eviction:30s}") Duration idleEviction,
+            @Value("${selmag.services.catalogue.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${selmag.services.catalogue.read-timeout:5s}") Duration readTimeout,
+            OAuth2AccessTokenCache catalogueAccessTokenCache,
+            WebClient.Builder webClientBuilder) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("catalogue")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(connectTimeout)
+                .maxIdleTime(idleEviction)
+                .build();
+        return new WebClientProductsRestClient(webClientBuilder
+                .baseUrl(catalogueBaseUri)
+                .clientConnector(new ReactorClientHttpConnector(reactor.netty.http.client.HttpClient
+                        .create(connectionProvider)
+                        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(connectTimeout.toMillis()))
+                        .responseTimeout(readTimeout)))
+                .filter(new OAuthExchangeFilterFunction(catalogueAccessTokenCache))
+                .build());
+    }
+}
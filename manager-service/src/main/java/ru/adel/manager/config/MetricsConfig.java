@@ -0,0 +1,40 @@
+package ru.adel.manager.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Тег {@code operation} у {@code http.server.requests} отделяет постраничный список товаров
+ * ({@code ProductsController.getProductsList}) от потокового ({@code ProductsController.streamProductsList}):
+ * оба обслуживают {@code catalogue/products/list}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public ServerRequestObservationConvention serverRequestObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and(operation(context));
+            }
+        };
+    }
+
+    private static KeyValue operation(ServerRequestObservationContext context) {
+        if (context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)
+                instanceof HandlerMethod handlerMethod) {
+            return KeyValue.of("operation", "%s.%s".formatted(handlerMethod.getBeanType().getSimpleName(),
+                    handlerMethod.getMethod().getName()));
+        }
+        // запросы, отклонённые до контроллера: фильтрами безопасности, статикой, несуществующими адресами
+        return KeyValue.of("operation", "none");
+    }
+}
@@ -0,0 +1,38 @@
+package ru.adel.manager.config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.thymeleaf.spring6.view.ThymeleafView;
+
+import java.util.Map;
+
+/**
+ * Страница Thymeleaf, отрисовка которой наблюдается как {@code template.render} с тегом {@code template}:
+ * в трассировке это span внутри span'а HTTP-запроса, в метриках — таймер по шаблонам.
+ */
+public class ObservedThymeleafView extends ThymeleafView {
+
+    @Override
+    public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response)
+            throws Exception {
+        Observation observation = Observation.createNotStarted("template.render", observationRegistry())
+                .contextualName("render " + getTemplateName())
+                .lowCardinalityKeyValue("template", getTemplateName())
+                .start();
+        try (Observation.Scope ignored = observation.openScope()) {
+            super.render(model, request, response);
+        } catch (Exception exception) {
+            observation.error(exception);
+            throw exception;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    private ObservationRegistry observationRegistry() {
+        return getApplicationContext().getBeanProvider(ObservationRegistry.class)
+                .getIfAvailable(() -> ObservationRegistry.NOOP);
+    }
+}
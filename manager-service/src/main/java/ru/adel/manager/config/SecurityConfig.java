@@ -1,7 +1,15 @@
 package ru.adel.manager.config;
 
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.autoconfigure.web.server.ConditionalOnManagementPort;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementPortType;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.core.GrantedAuthority;
@@ -12,6 +20,7 @@ import org.springframework.security.oauth2.client.userinfo.OAuth2UserService;
 import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
 
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +29,25 @@ import java.util.stream.Stream;
 @Configuration
 public class SecurityConfig {
 
+    /**
+     * Сборщик метрик и пробы не проходят вход через Keycloak, поэтому {@code prometheus} и {@code health}
+     * отдаются без входа, но только на {@code management.server.port}: порт с консолью менеджера их не обслуживает.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @ConditionalOnManagementPort(ManagementPortType.DIFFERENT)
+    public SecurityFilterChain managementSecurityFilterChain(HttpSecurity http, Environment environment)
+            throws Exception {
+        return http
+                .securityMatcher(new AndRequestMatcher(
+                        request -> String.valueOf(request.getLocalPort())
+                                .equals(environment.getProperty("local.management.port")),
+                        EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)))
+                .authorizeHttpRequests(authorizeHttpRequests -> authorizeHttpRequests
+                        .anyRequest().permitAll())
+                .build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         return http
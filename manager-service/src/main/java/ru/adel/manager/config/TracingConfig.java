@@ -0,0 +1,41 @@
+package ru.adel.manager.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Трассировка: span'ы HTTP-запросов и вызовов каталога создаёт Spring Boot, контекст передаётся каталогу
+ * заголовком W3C {@code traceparent}. Здесь добавляются span'ы отрисовки страниц и, при заданном
+ * {@code selmag.tracing.file}, запись span'ов в файл.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public static BeanPostProcessor observedThymeleafViewPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof ThymeleafViewResolver viewResolver) {
+                    viewResolver.setViewClass(ObservedThymeleafView.class);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty("selmag.tracing.file")
+    public FileSpanExporter fileSpanExporter(@Value("${selmag.tracing.file}") Path file, ObjectMapper objectMapper)
+            throws IOException {
+        return new FileSpanExporter(file, objectMapper);
+    }
+}
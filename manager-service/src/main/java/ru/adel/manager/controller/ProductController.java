@@ -24,6 +24,8 @@ public class ProductController {
 
     private final MessageSource messageSource;
 
+    private final ProductFragmentCache fragmentCache;
+
     @ModelAttribute("product")
     public Product product(@PathVariable("productId") int productId) {
         return productsRestClient.findProduct(productId)
@@ -31,7 +33,8 @@ public class ProductController {
     }
 
     @GetMapping
-    public String getProduct() {
+    public String getProduct(@ModelAttribute("product") Product product, Model model) {
+        model.addAttribute("productDetails", fragmentCache.details(product));
         return "catalogue/products/product";
     }
 
@@ -46,6 +49,7 @@ public class ProductController {
                                 Model model) {
         try {
             productsRestClient.updateProduct(product.id(), payload.title(), payload.details());
+            fragmentCache.evict(product.id());
             return "redirect:/catalogue/products/%d".formatted(product.id());
         } catch (BadRequestException exception) {
             model.addAttribute("payload", payload);
@@ -57,6 +61,7 @@ public class ProductController {
     @PostMapping("delete")
     public String deleteProduct(@ModelAttribute("product") Product product) {
         productsRestClient.deleteProduct(product.id());
+        fragmentCache.evict(product.id());
         return "redirect:/catalogue/products/list";
     }
 
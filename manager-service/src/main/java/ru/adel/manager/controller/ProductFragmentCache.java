@@ -0,0 +1,158 @@
+package ru.adel.manager.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+import ru.adel.manager.domain.entity.Product;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Готовый HTML фрагментов {@code catalogue/products/fragments}: карточки товара и строк списка. Ключ карточки —
+ * id и версия товара в каталоге, ключ строк — фильтр и пары (id, версия) товаров страницы, так что изменённый
+ * в каталоге товар даёт новый ключ, а поиск по ключу не сравнивает названия и описания. Товары, для которых каталог
+ * не прислал версию, входят в ключ целиком. Изменения через {@link ProductController} сразу вытесняют фрагменты
+ * товара и все фрагменты списков.
+ * <p>
+ * Отрисовка наблюдается как {@code catalogue.fragments.render} — это и таймер, и span в трассировке;
+ * время, сэкономленное попаданиями, пишется в {@code catalogue.fragments.render.saved}.
+ */
+@Component
+public class ProductFragmentCache {
+
+    static final String TEMPLATE = "catalogue/products/fragments";
+
+    static final String DETAILS = "details";
+
+    static final String ROWS = "rows";
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final JakartaServletWebApplication application;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ObservationRegistry observationRegistry;
+
+    private final Cache<FragmentKey, Fragment> fragments;
+
+    public ProductFragmentCache(SpringTemplateEngine templateEngine, ServletContext servletContext,
+                                @Value("${selmag.fragments.maximum-size:1000}") long maximumSize,
+                                MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+        this.templateEngine = templateEngine;
+        this.application = JakartaServletWebApplication.buildApplication(servletContext);
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+        this.fragments = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.fragments, "catalogue.fragments");
+    }
+
+    public String details(Product product) {
+        Object content = product.version() != null ? product.version() : product;
+        return fragment(new FragmentKey(DETAILS, product.id(), content), Map.of("product", product));
+    }
+
+    public String rows(String filter, List<Product> products) {
+        return fragment(new FragmentKey(ROWS, null, rowsContent(Objects.toString(filter, ""), products)),
+                Map.of("products", products));
+    }
+
+    /**
+     * Вытесняет фрагменты товара и все фрагменты списков, в которых он мог оказаться.
+     */
+    public void evict(int productId) {
+        this.fragments.asMap().keySet().removeIf(key ->
+                key.fragment().equals(ROWS) || Objects.equals(key.productId(), productId));
+    }
+
+    // рендеринг идёт вне блокировки кеша: одновременный промах отрисует фрагмент дважды, но не закрепит
+    // виртуальный поток за носителем
+    private String fragment(FragmentKey key, Map<String, Object> variables) {
+        Fragment fragment = this.fragments.getIfPresent(key);
+        if (fragment != null) {
+            Counter.builder("catalogue.fragments.render.saved")
+                    .baseUnit("seconds")
+                    .tag("fragment", key.fragment())
+                    .register(this.meterRegistry)
+                    .increment(fragment.renderNanos() / 1e9);
+            return fragment.html();
+        }
+
+        long start = System.nanoTime();
+        String html = Observation.createNotStarted("catalogue.fragments.render", this.observationRegistry)
+                .contextualName("render fragment " + key.fragment())
+                .lowCardinalityKeyValue("fragment", key.fragment())
+                .observe(() -> render(key.fragment(), variables));
+        long renderNanos = System.nanoTime() - start;
+        this.fragments.put(key, new Fragment(html, renderNanos));
+        return html;
+    }
+
+    private String render(String fragment, Map<String, Object> variables) {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        // закешированный HTML увидят другие пользователи, поэтому ссылки не должны получить ;jsessionid
+        HttpServletResponse response = new HttpServletResponseWrapper(attributes.getResponse()) {
+            @Override
+            public String encodeURL(String url) {
+                return url;
+            }
+        };
+        WebContext context = new WebContext(this.application.buildExchange(attributes.getRequest(), response),
+                LocaleContextHolder.getLocale(), variables);
+        return this.templateEngine.process(TEMPLATE, Set.of(fragment), context);
+    }
+
+    private static Object rowsContent(String filter, List<Product> products) {
+        long[] versions = new long[products.size()];
+        for (int i = 0; i < versions.length; i++) {
+            Product product = products.get(i);
+            if (product.version() == null) {
+                return List.of(filter, products);
+            }
+            versions[i] = (long) product.id() << 32 | (product.version() & 0xFFFFFFFFL);
+        }
+        return new VersionedRows(filter, versions);
+    }
+
+    private record FragmentKey(String fragment, Integer productId, Object content) {
+    }
+
+    private record VersionedRows(String filter, long[] versions) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof VersionedRows other && this.filter.equals(other.filter)
+                   && Arrays.equals(this.versions, other.versions);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.filter.hashCode() + Arrays.hashCode(this.versions);
+        }
+    }
+
+    private record Fragment(String html, long renderNanos) {
+    }
+}
@@ -6,6 +6,7 @@ import ru.adel.manager.client.BadRequestException;
 import ru.adel.manager.client.ProductsRestClient;
 import ru.adel.manager.controller.dto.NewProductDto;
 import ru.adel.manager.domain.entity.Product;
+import ru.adel.manager.domain.entity.ProductsPage;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -14,17 +15,51 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
+
 @Controller
 @RequiredArgsConstructor
 @RequestMapping("catalogue/products")
 public class ProductsController {
 
+    private static final List<Integer> PAGE_SIZES = List.of(20, 50, 100);
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private static final int STREAM_PAGE_SIZE = 500;
+
     private final ProductsRestClient productsRestClient;
 
+    private final ProductFragmentCache fragmentCache;
+
     @GetMapping("list")
-    public String getProductsList(Model model, @RequestParam(name = "filter", required = false) String filter) {
-        model.addAttribute("products",productsRestClient.findAllProducts(filter));
+    public String getProductsList(Model model, @RequestParam(name = "filter", required = false) String filter,
+                                  @RequestParam(name = "after", required = false) String after,
+                                  @RequestParam(name = "limit", defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        int pageSize = PAGE_SIZES.contains(limit) ? limit : DEFAULT_PAGE_SIZE;
+        ProductsPage page = productsRestClient.findProductsPage(filter, after, pageSize);
+        model.addAttribute("products", page.products());
+        model.addAttribute("productRows", fragmentCache.rows(filter, page.products()));
+        model.addAttribute("nextCursor", page.nextCursor());
+        model.addAttribute("filter", filter);
+        model.addAttribute("limit", pageSize);
+        model.addAttribute("pageSizes", PAGE_SIZES);
+        return "catalogue/products/list";
+    }
+
+    /**
+     * Весь список одной страницей: товары запрашиваются у каталога порциями по {@value STREAM_PAGE_SIZE}
+     * во время рендеринга, и каждая порция строк отправляется браузеру до запроса следующей. Порции
+     * читаются мимо кешей клиента, чтобы один просмотр всего списка не вытеснял из них страницы обычного списка.
+     */
+    @GetMapping(value = "list", params = "stream=true")
+    public String streamProductsList(Model model, @RequestParam(name = "filter", required = false) String filter,
+                                     HttpServletResponse response) {
+        model.addAttribute("products", new StreamedProducts(
+                after -> productsRestClient.findProductsPageUncached(filter, after, STREAM_PAGE_SIZE),
+                response::flushBuffer));
         model.addAttribute("filter", filter);
+        model.addAttribute("pageSizes", PAGE_SIZES);
         return "catalogue/products/list";
     }
 
@@ -0,0 +1,80 @@
+package ru.adel.manager.controller;
+
+import ru.adel.manager.domain.entity.Product;
+import ru.adel.manager.domain.entity.ProductsPage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Товары, которые подгружаются из каталога страницами по мере обхода. Шаблон пишет строки прямо в ответ,
+ * поэтому перед загрузкой следующей страницы выведенные строки отправляются браузеру, а в памяти
+ * держится только текущая страница.
+ */
+final class StreamedProducts implements Iterable<Product> {
+
+    private final Function<String, ProductsPage> pages;
+
+    private final Flushable output;
+
+    /**
+     * @param pages  загрузка страницы по курсору, {@code null} — первая страница
+     * @param output отправка уже выведенной части ответа
+     */
+    StreamedProducts(Function<String, ProductsPage> pages, Flushable output) {
+        this.pages = pages;
+        this.output = output;
+    }
+
+    @Override
+    public Iterator<Product> iterator() {
+        return new Iterator<>() {
+
+            private Iterator<Product> products = Collections.emptyIterator();
+
+            private String nextCursor;
+
+            private boolean started;
+
+            @Override
+            public boolean hasNext() {
+                while (!this.products.hasNext() && (!this.started || this.nextCursor != null)) {
+                    if (this.started) {
+                        flush();
+                    }
+                    ProductsPage page = pages.apply(this.nextCursor);
+                    this.started = true;
+                    this.products = page.products().iterator();
+                    this.nextCursor = page.nextCursor();
+                }
+                return this.products.hasNext();
+            }
+
+            @Override
+            public Product next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return this.products.next();
+            }
+        };
+    }
+
+    private void flush() {
+        try {
+            this.output.flush();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    @FunctionalInterface
+    interface Flushable {
+
+        void flush() throws IOException;
+    }
+}
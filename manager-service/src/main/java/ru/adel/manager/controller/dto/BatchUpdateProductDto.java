@@ -0,0 +1,4 @@
+package ru.adel.manager.controller.dto;
+
+public record BatchUpdateProductDto(Integer id, String title, String details) {
+}
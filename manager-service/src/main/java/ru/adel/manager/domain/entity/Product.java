@@ -1,4 +1,11 @@
 package ru.adel.manager.domain.entity;
 
-public record Product(int id, String title, String details) {
+/**
+ * {@code version} — версия товара в каталоге или {@code null}, если каталог её не прислал.
+ */
+public record Product(int id, String title, String details, Integer version) {
+
+    public Product(int id, String title, String details) {
+        this(id, title, details, null);
+    }
 }
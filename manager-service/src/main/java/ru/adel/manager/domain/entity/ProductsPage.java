@@ -0,0 +1,9 @@
+package ru.adel.manager.domain.entity;
+
+import java.util.List;
+
+/**
+ * {@code nextCursor} — значение заголовка {@code X-Next-Cursor} каталога, которое передаётся обратно как есть.
+ */
+public record ProductsPage(List<Product> products, String nextCursor) {
+}
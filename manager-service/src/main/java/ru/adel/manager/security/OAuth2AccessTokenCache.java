@@ -0,0 +1,206 @@
+package ru.adel.manager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.ClientAuthorizationRequiredException;
+import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Кеш access-токенов по имени пользователя. Токен, который истекает в ближайшие {@code refreshAhead},
+ * отдаётся из кеша и обновляется в фоне; одновременные обновления токена одного пользователя
+ * объединяются в одно обращение к {@link OAuth2AuthorizedClientManager}.
+ */
+@Slf4j
+public class OAuth2AccessTokenCache {
+
+    private final OAuth2AuthorizedClientManager authorizedClientManager;
+
+    private final String registrationId;
+
+    private final Duration refreshAhead;
+
+    private final Executor executor;
+
+    private final Clock clock;
+
+    private final Cache<String, OAuth2AccessToken> tokens;
+
+    private final ConcurrentMap<String, CompletableFuture<OAuth2AccessToken>> refreshes = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Timer backgroundRefreshes;
+
+    private final Timer blockingRefreshes;
+
+    public OAuth2AccessTokenCache(OAuth2AuthorizedClientManager authorizedClientManager, String registrationId,
+                                  Duration refreshAhead, long maximumSize, Executor executor,
+                                  MeterRegistry meterRegistry) {
+        this(authorizedClientManager, registrationId, refreshAhead, maximumSize, executor, Clock.systemUTC(),
+                meterRegistry);
+    }
+
+    OAuth2AccessTokenCache(OAuth2AuthorizedClientManager authorizedClientManager, String registrationId,
+                           Duration refreshAhead, long maximumSize, Executor executor, Clock clock,
+                           MeterRegistry meterRegistry) {
+        this.authorizedClientManager = authorizedClientManager;
+        this.registrationId = registrationId;
+        this.refreshAhead = refreshAhead;
+        this.executor = executor;
+        this.clock = clock;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, OAuth2AccessToken>() {
+                    @Override
+                    public long expireAfterCreate(String principalName, OAuth2AccessToken token, long currentTime) {
+                        return timeToLive(token);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String principalName, OAuth2AccessToken token, long currentTime,
+                                                  long currentDuration) {
+                        return timeToLive(token);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String principalName, OAuth2AccessToken token, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.hits = Counter.builder("oauth2.token.cache.requests")
+                .tag("registration", registrationId)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("oauth2.token.cache.requests")
+                .tag("registration", registrationId)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.backgroundRefreshes = Timer.builder("oauth2.token.refresh")
+                .tag("registration", registrationId)
+                .tag("mode", "background")
+                .register(meterRegistry);
+        this.blockingRefreshes = Timer.builder("oauth2.token.refresh")
+                .tag("registration", registrationId)
+                .tag("mode", "blocking")
+                .register(meterRegistry);
+    }
+
+    public OAuth2AccessToken getToken(Authentication principal) {
+        OAuth2AccessToken token = getCachedToken(principal);
+        if (token != null) {
+            return token;
+        }
+
+        this.misses.increment();
+        try {
+            return refresh(principal, Runnable::run, this.blockingRefreshes).join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (exception.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * Неблокирующий вариант {@link #getToken(Authentication)}: если токена нет или он истёк,
+     * авторизация выполняется на {@code executor}, а не в вызывающем потоке.
+     */
+    public CompletableFuture<OAuth2AccessToken> getTokenAsync(Authentication principal) {
+        OAuth2AccessToken token = getCachedToken(principal);
+        if (token != null) {
+            return CompletableFuture.completedFuture(token);
+        }
+
+        this.misses.increment();
+        return refresh(principal, this.executor, this.blockingRefreshes);
+    }
+
+    private OAuth2AccessToken getCachedToken(Authentication principal) {
+        Instant now = this.clock.instant();
+        OAuth2AccessToken token = this.tokens.getIfPresent(principal.getName());
+        if (token == null || token.getExpiresAt() != null && !now.isBefore(token.getExpiresAt())) {
+            return null;
+        }
+
+        this.hits.increment();
+        if (token.getExpiresAt() != null && !now.isBefore(token.getExpiresAt().minus(this.refreshAhead))) {
+            refresh(principal, this.executor, this.backgroundRefreshes);
+        }
+        return token;
+    }
+
+    private CompletableFuture<OAuth2AccessToken> refresh(Authentication principal, Executor executor, Timer timer) {
+        String principalName = principal.getName();
+        CompletableFuture<OAuth2AccessToken> refresh = new CompletableFuture<>();
+        CompletableFuture<OAuth2AccessToken> inFlight = this.refreshes.putIfAbsent(principalName, refresh);
+        if (inFlight != null) {
+            return inFlight;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    OAuth2AccessToken token = timer.record(() -> authorize(principal));
+                    this.tokens.put(principalName, token);
+                    refresh.complete(token);
+                } catch (Throwable exception) {
+                    if (timer == this.backgroundRefreshes) {
+                        log.warn("Не удалось обновить токен пользователя {} в фоне", principalName, exception);
+                    }
+                    refresh.completeExceptionally(exception);
+                } finally {
+                    this.refreshes.remove(principalName, refresh);
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            this.refreshes.remove(principalName, refresh);
+            refresh.completeExceptionally(exception);
+        }
+        return refresh;
+    }
+
+    private OAuth2AccessToken authorize(Authentication principal) {
+        OAuth2AuthorizedClient authorizedClient = this.authorizedClientManager.authorize(
+                OAuth2AuthorizeRequest.withClientRegistrationId(this.registrationId)
+                        .principal(principal)
+                        .build());
+        if (authorizedClient == null) {
+            throw new ClientAuthorizationRequiredException(this.registrationId);
+        }
+        return authorizedClient.getAccessToken();
+    }
+
+    private long timeToLive(OAuth2AccessToken token) {
+        if (token.getExpiresAt() == null) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, Duration.between(this.clock.instant(), token.getExpiresAt()).toNanos());
+    }
+}
@@ -1,5 +1,7 @@
 package ru.adel.manager.security;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import org.springframework.http.HttpHeaders;
@@ -9,34 +11,60 @@ import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextHolderStrategy;
-import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
-import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
-import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
 
 import java.io.IOException;
 
+/**
+ * Добавляет к запросу access-токен текущего пользователя. Получение токена наблюдается как
+ * {@code oauth2.token.acquisition}: в трассировке это отдельный span рядом со span'ом HTTP-запроса к каталогу.
+ * Если токен уже получил {@link OAuthTaskDecorator} в потоке HTTP-запроса, используется он.
+ */
 @RequiredArgsConstructor
 public class OAuthClientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
 
-    private final OAuth2AuthorizedClientManager authorizedClientManager;
-
-    private final String registrationId;
+    private final OAuth2AccessTokenCache accessTokenCache;
 
     @Setter
     private SecurityContextHolderStrategy securityContextHolderStrategy =
             SecurityContextHolder.getContextHolderStrategy();
 
+    @Setter
+    private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+    private final ThreadLocal<String> acquiredToken = new ThreadLocal<>();
+
     @Override
     public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
             throws IOException {
         if (!request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
-            OAuth2AuthorizedClient authorizedClient = authorizedClientManager.authorize(
-                    OAuth2AuthorizeRequest.withClientRegistrationId(this.registrationId)
-                            .principal(securityContextHolderStrategy.getContext().getAuthentication())
-                            .build());
-            request.getHeaders().setBearerAuth(authorizedClient.getAccessToken().getTokenValue());
+            String token = this.acquiredToken.get();
+            request.getHeaders().setBearerAuth(token != null ? token : acquireToken());
         }
 
         return execution.execute(request, body);
     }
+
+    String acquireToken() {
+        return Observation.createNotStarted("oauth2.token.acquisition", this.observationRegistry)
+                .contextualName("oauth2 token")
+                .observe(() -> this.accessTokenCache
+                        .getToken(securityContextHolderStrategy.getContext().getAuthentication())
+                        .getTokenValue());
+    }
+
+    Runnable withAcquiredToken(String token, Runnable task) {
+        return () -> {
+            String previous = this.acquiredToken.get();
+            this.acquiredToken.set(token);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    this.acquiredToken.remove();
+                } else {
+                    this.acquiredToken.set(previous);
+                }
+            }
+        };
+    }
 }
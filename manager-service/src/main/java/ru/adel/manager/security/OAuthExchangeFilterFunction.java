@@ -0,0 +1,53 @@
+package ru.adel.manager.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Реактивный аналог {@link OAuthClientHttpRequestInterceptor}. Пользователь берётся из контекста Reactor,
+ * а если его там нет — из {@link SecurityContextHolder} потока, в котором запрос подписан; для страниц
+ * Spring MVC это поток обработки HTTP-запроса. Запросы, которые подписываются позже из потоков Netty
+ * (например, следующие страницы списка), должны получить пользователя через контекст Reactor.
+ */
+@RequiredArgsConstructor
+public class OAuthExchangeFilterFunction implements ExchangeFilterFunction {
+
+    private final OAuth2AccessTokenCache accessTokenCache;
+
+    @Setter
+    private SecurityContextHolderStrategy securityContextHolderStrategy =
+            SecurityContextHolder.getContextHolderStrategy();
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (request.headers().containsKey(HttpHeaders.AUTHORIZATION)) {
+            return next.exchange(request);
+        }
+
+        return ReactiveSecurityContextHolder.getContext()
+                .mapNotNull(SecurityContext::getAuthentication)
+                .switchIfEmpty(Mono.fromSupplier(this::currentAuthentication))
+                .switchIfEmpty(Mono.error(() ->
+                        new AuthenticationCredentialsNotFoundException("Пользователь для запроса к каталогу не найден")))
+                .flatMap(principal -> Mono.fromFuture(() -> this.accessTokenCache.getTokenAsync(principal)))
+                .flatMap(token -> next.exchange(ClientRequest.from(request)
+                        .headers(headers -> headers.setBearerAuth(token.getTokenValue()))
+                        .build()));
+    }
+
+    private Authentication currentAuthentication() {
+        return this.securityContextHolderStrategy.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,25 @@
+package ru.adel.manager.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Получает access-токен для задачи, переданной из потока HTTP-запроса, ещё в этом потоке: менеджеру
+ * авторизованных клиентов нужна сессия пользователя. Задаче достаётся только сам токен, без атрибутов запроса,
+ * потому что брошенный по тайм-ауту вызов переживает запрос, а атрибуты завершённого запроса Tomcat переиспользует.
+ * Задачи, переданные вне запроса, не меняются: токен для них получает {@link OAuthClientHttpRequestInterceptor}.
+ */
+@RequiredArgsConstructor
+public class OAuthTaskDecorator implements TaskDecorator {
+
+    private final OAuthClientHttpRequestInterceptor interceptor;
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        if (RequestContextHolder.getRequestAttributes() == null) {
+            return runnable;
+        }
+        return this.interceptor.withAcquiredToken(this.interceptor.acquireToken(), runnable);
+    }
+}
@@ -0,0 +1,197 @@
+package ru.adel.manager.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.client.HttpServerErrorException;
+import ru.adel.manager.domain.entity.Product;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchingProductsRestClientTest {
+
+    @Mock
+    ProductsRestClient delegate;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void findProduct_ConcurrentCallsWithinWindow_SendsOneMultiGet() throws Exception {
+        // given
+        BatchingProductsRestClient client = client(Duration.ofMillis(300), 100);
+        doAnswer(invocation -> products(invocation.getArgument(0)))
+                .when(delegate).findProducts(anyCollection());
+
+        // when
+        List<Future<Optional<Product>>> results = startConcurrently(List.of(
+                () -> client.findProduct(1), () -> client.findProduct(2),
+                () -> client.findProduct(2), () -> client.findProduct(42)));
+
+        // then
+        assertEquals(Optional.of(product(1)), results.get(0).get(5, TimeUnit.SECONDS));
+        assertEquals(Optional.of(product(2)), results.get(1).get(5, TimeUnit.SECONDS));
+        assertEquals(Optional.of(product(2)), results.get(2).get(5, TimeUnit.SECONDS));
+        assertEquals(Optional.empty(), results.get(3).get(5, TimeUnit.SECONDS));
+        verify(delegate).findProducts(argThat(ids -> ids.size() == 3 && ids.containsAll(List.of(1, 2, 42))));
+        verifyNoMoreInteractions(delegate);
+        assertEquals(3, meterRegistry.get("catalogue.client.batch.size").summary().max());
+    }
+
+    @Test
+    void findProduct_SingleCallWithinWindow_SendsSingleProductRequest() {
+        // given
+        BatchingProductsRestClient client = client(Duration.ofMillis(10), 100);
+        doReturn(Optional.of(product(1))).when(delegate).findProduct(1);
+
+        // when
+        Optional<Product> result = client.findProduct(1);
+
+        // then
+        assertEquals(Optional.of(product(1)), result);
+        verify(delegate).findProduct(1);
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    void findProduct_WindowIsZero_CallsDelegateWithoutBatching() throws Exception {
+        // given
+        BatchingProductsRestClient client = client(Duration.ZERO, 100);
+        doAnswer(invocation -> Optional.of(product(invocation.getArgument(0))))
+                .when(delegate).findProduct(anyInt());
+
+        // when
+        List<Future<Optional<Product>>> results = startConcurrently(List.of(
+                () -> client.findProduct(1), () -> client.findProduct(2)));
+
+        // then
+        assertEquals(Optional.of(product(1)), results.get(0).get(5, TimeUnit.SECONDS));
+        assertEquals(Optional.of(product(2)), results.get(1).get(5, TimeUnit.SECONDS));
+        verify(delegate, never()).findProducts(anyCollection());
+        assertEquals(0, meterRegistry.get("catalogue.client.batch.size").summary().count());
+    }
+
+    @Test
+    void findProduct_BatchIsFilled_SendsItWithoutWaitingForWindow() throws Exception {
+        // given
+        BatchingProductsRestClient client = client(Duration.ofMinutes(1), 2);
+        doAnswer(invocation -> products(invocation.getArgument(0)))
+                .when(delegate).findProducts(anyCollection());
+
+        // when
+        List<Future<Optional<Product>>> results = startConcurrently(List.of(
+                () -> client.findProduct(1), () -> client.findProduct(2)));
+
+        // then
+        assertEquals(Optional.of(product(1)), results.get(0).get(5, TimeUnit.SECONDS));
+        assertEquals(Optional.of(product(2)), results.get(1).get(5, TimeUnit.SECONDS));
+        verify(delegate).findProducts(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(1, 2))));
+    }
+
+    @Test
+    void findProduct_CallsOfDifferentUsers_SendsSeparateBatches() throws Exception {
+        // given
+        BatchingProductsRestClient client = client(Duration.ofMillis(300), 100);
+        doAnswer(invocation -> products(invocation.getArgument(0)))
+                .when(delegate).findProducts(anyCollection());
+
+        // when
+        List<Future<Optional<Product>>> results = startConcurrently(List.of(
+                () -> asUser("saqner", () -> client.findProduct(1)),
+                () -> asUser("saqner", () -> client.findProduct(2)),
+                () -> asUser("manager", () -> client.findProduct(3)),
+                () -> asUser("manager", () -> client.findProduct(4))));
+
+        // then
+        for (Future<Optional<Product>> result : results) {
+            assertTrue(result.get(5, TimeUnit.SECONDS).isPresent());
+        }
+        verify(delegate).findProducts(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(1, 2))));
+        verify(delegate).findProducts(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(3, 4))));
+    }
+
+    @Test
+    void findProduct_MultiGetFails_ThrowsToEveryCaller() throws Exception {
+        // given
+        BatchingProductsRestClient client = client(Duration.ofMillis(300), 100);
+        doThrow(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR))
+                .when(delegate).findProducts(anyCollection());
+
+        // when
+        List<Future<Optional<Product>>> results = startConcurrently(List.of(
+                () -> client.findProduct(1), () -> client.findProduct(2)));
+
+        // then
+        for (Future<Optional<Product>> result : results) {
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                    () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(HttpServerErrorException.class, exception.getCause());
+        }
+        verify(delegate).findProducts(anyCollection());
+    }
+
+    private BatchingProductsRestClient client(Duration window, int maxBatchSize) {
+        return new BatchingProductsRestClient(delegate, window, maxBatchSize, meterRegistry);
+    }
+
+    private <T> List<Future<T>> startConcurrently(List<Callable<T>> calls) {
+        CyclicBarrier start = new CyclicBarrier(calls.size());
+        List<Future<T>> futures = new ArrayList<>();
+        for (Callable<T> call : calls) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return call.call();
+            }));
+        }
+        return futures;
+    }
+
+    private static <T> T asUser(String username, Callable<T> call) throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(username, "password"));
+        try {
+            return call.call();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static List<Product> products(Collection<Integer> productIds) {
+        return productIds.stream()
+                .filter(productId -> productId < 10)
+                .sorted()
+                .map(BatchingProductsRestClientTest::product)
+                .toList();
+    }
+
+    private static Product product(int productId) {
+        return new Product(productId, "Товар №%d".formatted(productId), "Описание товара №%d".formatted(productId));
+    }
+}
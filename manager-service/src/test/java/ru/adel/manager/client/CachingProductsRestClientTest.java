@@ -0,0 +1,199 @@
+package ru.adel.manager.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.adel.manager.controller.dto.BatchUpdateProductDto;
+import ru.adel.manager.domain.entity.Product;
+import ru.adel.manager.domain.entity.ProductsPage;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingProductsRestClientTest {
+
+    @Mock
+    ProductsRestClient delegate;
+
+    AtomicLong nanos = new AtomicLong();
+
+    Queue<Runnable> backgroundTasks = new ArrayDeque<>();
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    CachingProductsRestClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = new CachingProductsRestClient(delegate, 100, Duration.ofMinutes(10), Duration.ofSeconds(30),
+                backgroundTasks::add, nanos::get, meterRegistry);
+    }
+
+    @Test
+    void findProduct_ProductIsCached_DoesNotCallCatalogue() {
+        // given
+        Product product = new Product(1, "Товар", "Описание товара");
+        when(delegate.findProduct(1)).thenReturn(Optional.of(product));
+
+        // when
+        client.findProduct(1);
+        Optional<Product> result = client.findProduct(1);
+
+        // then
+        assertEquals(Optional.of(product), result);
+        verify(delegate, times(1)).findProduct(1);
+        assertEquals(0.5, meterRegistry.get("catalogue.client.cache.hit.ratio")
+                .tag("cache", "catalogue.products").gauge().value());
+    }
+
+    @Test
+    void findProduct_ValueIsStale_ReturnsItAndRefreshesInBackground() {
+        // given
+        Product product = new Product(1, "Товар", "Описание товара");
+        Product updatedProduct = new Product(1, "Новый товар", "Описание товара");
+        when(delegate.findProduct(1)).thenReturn(Optional.of(product), Optional.of(updatedProduct));
+        client.findProduct(1);
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        // when
+        Optional<Product> staleResult = client.findProduct(1);
+        runBackgroundTasks();
+        Optional<Product> refreshedResult = client.findProduct(1);
+
+        // then
+        assertEquals(Optional.of(product), staleResult);
+        assertEquals(Optional.of(updatedProduct), refreshedResult);
+        verify(delegate, times(2)).findProduct(1);
+        assertEquals(1, meterRegistry.get("catalogue.client.cache.stale.reads")
+                .tag("cache", "catalogue.products").counter().count());
+        assertEquals(31, meterRegistry.get("catalogue.client.cache.staleness")
+                .tag("cache", "catalogue.products").timer().max(TimeUnit.SECONDS));
+    }
+
+    @Test
+    void findProduct_ValueIsExpired_LoadsItAgain() {
+        // given
+        Product product = new Product(1, "Товар", "Описание товара");
+        when(delegate.findProduct(1)).thenReturn(Optional.of(product));
+        client.findProduct(1);
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        // when
+        client.findProduct(1);
+
+        // then
+        verify(delegate, times(2)).findProduct(1);
+        assertEquals(0, meterRegistry.get("catalogue.client.cache.stale.reads")
+                .tag("cache", "catalogue.products").counter().count());
+    }
+
+    @Test
+    void findProductsPageUncached_PageIsRequestedTwice_CallsCatalogueEachTime() {
+        // given
+        when(delegate.findProductsPageUncached("товар", null, 500)).thenReturn(new ProductsPage(List.of(), null));
+
+        // when
+        client.findProductsPageUncached("товар", null, 500);
+        client.findProductsPageUncached("товар", null, 500);
+
+        // then
+        verify(delegate, times(2)).findProductsPageUncached("товар", null, 500);
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    void updateProduct_InvalidatesProductAndLists() {
+        // given
+        when(delegate.findProduct(1)).thenReturn(Optional.of(new Product(1, "Товар", "Описание товара")));
+        when(delegate.findProduct(2)).thenReturn(Optional.of(new Product(2, "Другой товар", null)));
+        when(delegate.findProductsPage("товар", null, 20)).thenReturn(new ProductsPage(List.of(), null));
+        client.findProduct(1);
+        client.findProduct(2);
+        client.findProductsPage("товар", null, 20);
+
+        // when
+        client.updateProduct(1, "Новый товар", "Описание товара");
+        client.findProduct(1);
+        client.findProduct(2);
+        client.findProductsPage("товар", null, 20);
+
+        // then
+        verify(delegate).updateProduct(1, "Новый товар", "Описание товара");
+        verify(delegate, times(2)).findProduct(1);
+        verify(delegate, times(1)).findProduct(2);
+        verify(delegate, times(2)).findProductsPage("товар", null, 20);
+    }
+
+    @Test
+    void updateProducts_CatalogueFails_StillInvalidatesProducts() {
+        // given
+        when(delegate.findProduct(1)).thenReturn(Optional.empty());
+        client.findProduct(1);
+        List<BatchUpdateProductDto> products = List.of(new BatchUpdateProductDto(1, "Новый товар", null));
+        when(delegate.updateProducts(products)).thenThrow(new IllegalStateException());
+
+        // when
+        try {
+            client.updateProducts(products);
+        } catch (IllegalStateException ignored) {
+        }
+        client.findProduct(1);
+
+        // then
+        verify(delegate, times(2)).findProduct(1);
+    }
+
+    @Test
+    void findProducts_SomeProductsAreCached_LoadsMissingProductsInOneCall() {
+        // given
+        Product firstProduct = new Product(1, "Товар №1", "Описание товара №1");
+        Product thirdProduct = new Product(3, "Товар №3", "Описание товара №3");
+        when(delegate.findProduct(1)).thenReturn(Optional.of(firstProduct));
+        when(delegate.findProducts(List.of(2, 3))).thenReturn(List.of(thirdProduct));
+        client.findProduct(1);
+
+        // when
+        List<Product> result = client.findProducts(List.of(3, 2, 1));
+        Optional<Product> missingProduct = client.findProduct(2);
+
+        // then
+        assertEquals(List.of(firstProduct, thirdProduct), result);
+        assertEquals(Optional.empty(), missingProduct);
+        verify(delegate).findProducts(List.of(2, 3));
+        verify(delegate, never()).findProduct(2);
+    }
+
+    @Test
+    void createProduct_InvalidatesAllProductsList() {
+        // given
+        when(delegate.findAllProducts(null)).thenReturn(List.of());
+        when(delegate.createProduct("Новый товар", "Описание")).thenReturn(new Product(3, "Новый товар", "Описание"));
+        client.findAllProducts(null);
+
+        // when
+        client.createProduct("Новый товар", "Описание");
+        client.findAllProducts(null);
+
+        // then
+        verify(delegate, times(2)).findAllProducts(null);
+    }
+
+    private void runBackgroundTasks() {
+        Runnable task;
+        while ((task = backgroundTasks.poll()) != null) {
+            task.run();
+        }
+    }
+}
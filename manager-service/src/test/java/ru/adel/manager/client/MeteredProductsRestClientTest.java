@@ -0,0 +1,80 @@
+package ru.adel.manager.client;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import ru.adel.manager.domain.entity.Product;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MeteredProductsRestClientTest {
+
+    @Mock
+    ProductsRestClient delegate;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void findProduct_DelegateReturnsProduct_RecordsSuccess() {
+        // given
+        MeteredProductsRestClient client = new MeteredProductsRestClient(delegate, meterRegistry);
+        doReturn(Optional.of(new Product(1, "Товар №1", "Описание товара №1"))).when(delegate).findProduct(1);
+
+        // when
+        Optional<Product> result = client.findProduct(1);
+
+        // then
+        assertEquals(Optional.of(new Product(1, "Товар №1", "Описание товара №1")), result);
+        assertEquals(1, timer("findProduct", "SUCCESS", "none").count());
+    }
+
+    @Test
+    void updateProduct_DelegateThrowsBadRequest_RecordsClientErrorAndRethrows() {
+        // given
+        MeteredProductsRestClient client = new MeteredProductsRestClient(delegate, meterRegistry);
+        BadRequestException exception = new BadRequestException(List.of("Ошибка"));
+        doThrow(exception).when(delegate).updateProduct(1, "", null);
+
+        // when
+        BadRequestException thrown = assertThrows(BadRequestException.class,
+                () -> client.updateProduct(1, "", null));
+
+        // then
+        assertSame(exception, thrown);
+        assertEquals(1, timer("updateProduct", "CLIENT_ERROR", "BadRequestException").count());
+    }
+
+    @Test
+    void deleteProduct_CatalogueRespondsWithError_RecordsOutcomeOfItsStatus() {
+        // given
+        MeteredProductsRestClient client = new MeteredProductsRestClient(delegate, meterRegistry);
+        doThrow(new HttpClientErrorException(HttpStatus.FORBIDDEN)).when(delegate).deleteProduct(1);
+        doThrow(new CatalogueUnavailableException("Каталог недоступен", null)).when(delegate).deleteProduct(2);
+
+        // when
+        assertThrows(HttpClientErrorException.class, () -> client.deleteProduct(1));
+        assertThrows(CatalogueUnavailableException.class, () -> client.deleteProduct(2));
+
+        // then
+        assertEquals(1, timer("deleteProduct", "CLIENT_ERROR", "HttpClientErrorException").count());
+        assertEquals(1, timer("deleteProduct", "SERVER_ERROR", "CatalogueUnavailableException").count());
+    }
+
+    private Timer timer(String operation, String outcome, String exception) {
+        return meterRegistry.get("catalogue.client.operations")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .tag("exception", exception)
+                .timer();
+    }
+}
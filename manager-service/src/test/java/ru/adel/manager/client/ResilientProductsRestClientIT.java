@@ -0,0 +1,248 @@
+package ru.adel.manager.client;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import ru.adel.manager.domain.entity.Product;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@WireMockTest(httpPort = 54321)
+class ResilientProductsRestClientIT {
+
+    static final Duration FIND_TIMEOUT = Duration.ofSeconds(1);
+
+    static final Duration WAIT_DURATION_IN_OPEN_STATE = Duration.ofMillis(500);
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    AtomicInteger dispatchedCalls = new AtomicInteger();
+
+    CircuitBreaker circuitBreaker = CircuitBreaker.of("catalogue", CircuitBreakerConfig.custom()
+            .slidingWindowSize(2)
+            .minimumNumberOfCalls(2)
+            .failureRateThreshold(50)
+            .waitDurationInOpenState(WAIT_DURATION_IN_OPEN_STATE)
+            .permittedNumberOfCallsInHalfOpenState(1)
+            .recordExceptions(TimeoutException.class, ResourceAccessException.class, HttpServerErrorException.class)
+            .build());
+
+    ResilientProductsRestClient client = client(Bulkhead.ofDefaults("catalogue"));
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void findProduct_CatalogueIsSlowerThanTimeout_ReturnsLastKnownProduct() {
+        // given
+        WireMock.stubFor(WireMock.get("/catalogue-api/products/1")
+                .willReturn(WireMock.okJson("""
+                        {"id": 1, "title": "Товар", "details": "Описание товара"}""")));
+        client.findProduct(1);
+        WireMock.stubFor(WireMock.get("/catalogue-api/products/1")
+                .willReturn(WireMock.okJson("""
+                        {"id": 1, "title": "Новый товар", "details": "Описание товара"}""")
+                        .withFixedDelay(3000)));
+
+        // when
+        long startedAt = System.nanoTime();
+        Optional<Product> result = client.findProduct(1);
+        long elapsed = System.nanoTime() - startedAt;
+
+        // then
+        assertEquals(Optional.of(new Product(1, "Товар", "Описание товара")), result);
+        assertTrue(elapsed < TimeUnit.MILLISECONDS.toNanos(2500));
+        assertEquals(1, rejections("findProduct", "timeout"));
+        assertEquals(1, meterRegistry.get("catalogue.client.fallbacks").tag("operation", "findProduct")
+                .counter().count());
+    }
+
+    @Test
+    void findProduct_CatalogueIsSlowerThanTimeoutAndProductIsUnknown_ThrowsCatalogueUnavailableException() {
+        // given
+        WireMock.stubFor(WireMock.get("/catalogue-api/products/1")
+                .willReturn(WireMock.okJson("""
+                        {"id": 1, "title": "Товар", "details": "Описание товара"}""")
+                        .withFixedDelay(3000)));
+
+        // when
+        CatalogueUnavailableException exception = assertThrows(CatalogueUnavailableException.class,
+                () -> client.findProduct(1));
+
+        // then
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+        assertEquals(1, rejections("findProduct", "timeout"));
+    }
+
+    @Test
+    void findProductsPageUncached_CatalogueIsSlowerThanTimeout_ThrowsWithoutLastKnownPage() {
+        // given
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/catalogue-api/products"))
+                .willReturn(WireMock.okJson("""
+                        [{"id": 1, "title": "Товар"}]""")));
+        client.findProductsPageUncached(null, null, 500);
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/catalogue-api/products"))
+                .willReturn(WireMock.okJson("""
+                        [{"id": 1, "title": "Товар"}]""")
+                        .withFixedDelay(3000)));
+
+        // when
+        CatalogueUnavailableException exception = assertThrows(CatalogueUnavailableException.class,
+                () -> client.findProductsPageUncached(null, null, 500));
+
+        // then
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+        assertEquals(1, rejections("findProductsPageUncached", "timeout"));
+    }
+
+    @Test
+    void updateProduct_CircuitIsOpen_FailsFastWithoutCallingCatalogue() {
+        // given
+        WireMock.stubFor(WireMock.get(WireMock.urlMatching("/catalogue-api/products/\\d+"))
+                .willReturn(WireMock.serverError()));
+        WireMock.stubFor(WireMock.patch(WireMock.urlEqualTo("/catalogue-api/products/1"))
+                .willReturn(WireMock.noContent()));
+        assertThrows(CatalogueUnavailableException.class, () -> client.findProduct(1));
+        assertThrows(CatalogueUnavailableException.class, () -> client.findProduct(2));
+
+        // when
+        assertThrows(CatalogueUnavailableException.class,
+                () -> client.updateProduct(1, "Новое название", "Новое описание"));
+
+        // then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        WireMock.verify(0, WireMock.patchRequestedFor(WireMock.urlEqualTo("/catalogue-api/products/1")));
+        assertEquals(1, rejections("updateProduct", "circuit-open"));
+        assertEquals(1, transitions("CLOSED", "OPEN"));
+    }
+
+    @Test
+    void findProduct_HalfOpenProbeSucceeds_ClosesCircuit() throws Exception {
+        // given
+        WireMock.stubFor(WireMock.get("/catalogue-api/products/1")
+                .willReturn(WireMock.serverError()));
+        assertThrows(CatalogueUnavailableException.class, () -> client.findProduct(1));
+        assertThrows(CatalogueUnavailableException.class, () -> client.findProduct(1));
+        assertThrows(CatalogueUnavailableException.class, () -> client.findProduct(1));
+        WireMock.stubFor(WireMock.get("/catalogue-api/products/1")
+                .willReturn(WireMock.okJson("""
+                        {"id": 1, "title": "Товар", "details": "Описание товара"}""")));
+        Thread.sleep(WAIT_DURATION_IN_OPEN_STATE.toMillis() + 100);
+
+        // when
+        Optional<Product> result = client.findProduct(1);
+
+        // then
+        assertEquals(Optional.of(new Product(1, "Товар", "Описание товара")), result);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        WireMock.verify(3, WireMock.getRequestedFor(WireMock.urlEqualTo("/catalogue-api/products/1")));
+        assertEquals(1, transitions("CLOSED", "OPEN"));
+        assertEquals(1, transitions("OPEN", "HALF_OPEN"));
+        assertEquals(1, transitions("HALF_OPEN", "CLOSED"));
+    }
+
+    @Test
+    void findProduct_BulkheadIsFull_RejectsExtraCall() throws Exception {
+        // given
+        ResilientProductsRestClient client = client(Bulkhead.of("catalogue", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build()));
+        WireMock.stubFor(WireMock.get(WireMock.urlMatching("/catalogue-api/products/\\d+"))
+                .willReturn(WireMock.okJson("""
+                        {"id": 1, "title": "Товар", "details": "Описание товара"}""")
+                        .withFixedDelay(200)));
+        Future<Optional<Product>> slowCall = executor.submit(() -> client.findProduct(1));
+        while (WireMock.findAll(WireMock.getRequestedFor(WireMock.urlEqualTo("/catalogue-api/products/1")))
+                .isEmpty()) {
+            Thread.onSpinWait();
+        }
+
+        // when
+        assertThrows(CatalogueUnavailableException.class, () -> client.findProduct(2));
+
+        // then
+        assertTrue(slowCall.get(5, TimeUnit.SECONDS).isPresent());
+        WireMock.verify(0, WireMock.getRequestedFor(WireMock.urlEqualTo("/catalogue-api/products/2")));
+        assertEquals(1, rejections("findProduct", "bulkhead-full"));
+        assertEquals(1, dispatchedCalls.get());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void findProduct_AbandonedCallIsStillRunning_KeepsBulkheadPermit() {
+        // given
+        Bulkhead bulkhead = Bulkhead.of("catalogue", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        ResilientProductsRestClient client = client(bulkhead);
+        WireMock.stubFor(WireMock.get("/catalogue-api/products/1")
+                .willReturn(WireMock.okJson("""
+                        {"id": 1, "title": "Товар", "details": "Описание товара"}""")
+                        .withFixedDelay((int) FIND_TIMEOUT.multipliedBy(2).toMillis())));
+        assertThrows(CatalogueUnavailableException.class, () -> client.findProduct(1));
+
+        // when
+        assertThrows(CatalogueUnavailableException.class, () -> client.findProduct(2));
+
+        // then
+        assertEquals(1, rejections("findProduct", "bulkhead-full"));
+        assertEquals(1, dispatchedCalls.get());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkhead.getMetrics().getAvailableConcurrentCalls() == 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(1, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    private ResilientProductsRestClient client(Bulkhead bulkhead) {
+        return new ResilientProductsRestClient(new RestClientProductsRestClient(RestClient.builder()
+                .baseUrl("http://localhost:54321")
+                .requestFactory(new JdkClientHttpRequestFactory())
+                .build(), meterRegistry),
+                circuitBreaker, bulkhead,
+                new ResilientProductsRestClient.Timeouts(FIND_TIMEOUT, FIND_TIMEOUT, FIND_TIMEOUT, FIND_TIMEOUT),
+                100, command -> {
+                    dispatchedCalls.incrementAndGet();
+                    executor.execute(command);
+                }, meterRegistry);
+    }
+
+    private double rejections(String operation, String reason) {
+        return meterRegistry.get("catalogue.client.rejections")
+                .tags("operation", operation, "reason", reason)
+                .counter()
+                .count();
+    }
+
+    private double transitions(String from, String to) {
+        return meterRegistry.get("catalogue.client.circuit.transitions")
+                .tags("from", from, "to", to)
+                .counter()
+                .count();
+    }
+}
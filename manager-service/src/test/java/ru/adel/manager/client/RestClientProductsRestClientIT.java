@@ -0,0 +1,296 @@
+package ru.adel.manager.client;
+
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClient;
+import ru.adel.manager.controller.dto.NewProductDto;
+import ru.adel.manager.domain.entity.Product;
+import ru.adel.manager.domain.entity.ProductsPage;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@WireMockTest(httpPort = 54321)
+class RestClientProductsRestClientIT {
+
+    static final int CALLERS = 8;
+
+    static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    RestClientProductsRestClient client = new RestClientProductsRestClient(RestClient.builder()
+            .baseUrl("http://localhost:54321")
+            .requestFactory(new JdkClientHttpRequestFactory())
+            .build(), meterRegistry);
+
+    ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void findProduct_ConcurrentCallsForSameProduct_SendsOneRequest() throws Exception {
+        // given
+        WireMock.stubFor(WireMock.get("/catalogue-api/products/1")
+                .willReturn(WireMock.okJson("""
+                        {"id": 1, "title": "Товар", "details": "Описание товара"}""")
+                        .withFixedDelay(500)));
+
+        // when
+        List<Optional<Product>> results = callConcurrently(() -> client.findProduct(1));
+
+        // then
+        for (Optional<Product> result : results) {
+            assertEquals(Optional.of(new Product(1, "Товар", "Описание товара")), result);
+        }
+        WireMock.verify(1, WireMock.getRequestedFor(WireMock.urlEqualTo("/catalogue-api/products/1")));
+        assertEquals(CALLERS - 1, coalescedCalls("findProduct"));
+    }
+
+    @Test
+    void findAllProducts_ConcurrentCallsWithSameFilter_SendsOneRequest() throws Exception {
+        // given
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/catalogue-api/products"))
+                .withQueryParam("filter", WireMock.equalTo("товар"))
+                .willReturn(WireMock.okJson("""
+                        [{"id": 1, "title": "Товар", "details": "Описание товара"}]""")
+                        .withFixedDelay(500)));
+
+        // when
+        List<List<Product>> results = callConcurrently(() -> client.findAllProducts("товар"));
+
+        // then
+        for (List<Product> result : results) {
+            assertEquals(List.of(new Product(1, "Товар", "Описание товара")), result);
+        }
+        WireMock.verify(1, WireMock.getRequestedFor(WireMock.urlPathEqualTo("/catalogue-api/products")));
+        assertEquals(CALLERS - 1, coalescedCalls("findAllProducts"));
+    }
+
+    @Test
+    void findProducts_SendsDistinctIdsInOneRequest() {
+        // given
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/catalogue-api/products"))
+                .withQueryParam("ids", WireMock.equalTo("1,2,3"))
+                .willReturn(WireMock.okJson("""
+                        [{"id": 1, "title": "Товар №1", "details": "Описание товара №1"},
+                        {"id": 3, "title": "Товар №3", "details": "Описание товара №3"}]""")));
+
+        // when
+        List<Product> result = client.findProducts(List.of(3, 1, 2, 1));
+
+        // then
+        assertEquals(List.of(new Product(1, "Товар №1", "Описание товара №1"),
+                new Product(3, "Товар №3", "Описание товара №3")), result);
+        WireMock.verify(1, WireMock.getRequestedFor(WireMock.urlPathEqualTo("/catalogue-api/products")));
+    }
+
+    @Test
+    void findProductsPage_RequestsOnlyIdAndTitle() {
+        // given
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/catalogue-api/products"))
+                .withQueryParam("fields", WireMock.equalTo("id,title"))
+                .willReturn(WireMock.okJson("""
+                        [{"id": 1, "title": "Товар"}]""")));
+
+        // when
+        ProductsPage result = client.findProductsPage(null, null, 1);
+
+        // then
+        assertEquals(new ProductsPage(List.of(new Product(1, "Товар", null)), null), result);
+    }
+
+    @Test
+    void findProductsPage_CatalogueSendsVersions_ReturnsProductsWithVersions() {
+        // given
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/catalogue-api/products"))
+                .willReturn(WireMock.okJson("""
+                        [{"id": 1, "title": "Товар", "version": 3}]""")));
+
+        // when
+        ProductsPage result = client.findProductsPage(null, null, 1);
+
+        // then
+        assertEquals(new ProductsPage(List.of(new Product(1, "Товар", null, 3)), null), result);
+    }
+
+    @Test
+    void findProductsPage_ResponseIsGzipped_DecompressesIt() throws Exception {
+        // given
+        RestClientProductsRestClient gzipClient = new RestClientProductsRestClient(RestClient.builder()
+                .baseUrl("http://localhost:54321")
+                .requestFactory(new JdkClientHttpRequestFactory())
+                .requestInterceptor(new GzipClientHttpRequestInterceptor())
+                .build(), meterRegistry);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(body)) {
+            gzipOutputStream.write("""
+                    [{"id": 1, "title": "Товар"}]""".getBytes(StandardCharsets.UTF_8));
+        }
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/catalogue-api/products"))
+                .withHeader(HttpHeaders.ACCEPT_ENCODING, WireMock.equalTo("gzip"))
+                .willReturn(WireMock.ok()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withHeader(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .withBody(body.toByteArray())));
+
+        // when
+        ProductsPage result = gzipClient.findProductsPage(null, null, 1);
+
+        // then
+        assertEquals(new ProductsPage(List.of(new Product(1, "Товар", null)), null), result);
+    }
+
+    @Test
+    void findProductsPage_WireFormatIsSmile_AcceptsAndParsesSmile() throws Exception {
+        // given
+        RestClientProductsRestClient smileClient = new RestClientProductsRestClient(RestClient.builder()
+                .baseUrl("http://localhost:54321")
+                .requestFactory(new JdkClientHttpRequestFactory())
+                .build(), SMILE, meterRegistry);
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/catalogue-api/products"))
+                .withHeader(HttpHeaders.ACCEPT, WireMock.equalTo("application/x-jackson-smile, application/json"))
+                .willReturn(WireMock.ok()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, SMILE.toString())
+                        .withHeader("X-Next-Cursor", "1")
+                        .withBody(new SmileMapper().writeValueAsBytes(List.of(
+                                new Product(1, "Товар", "Описание товара"))))));
+
+        // when
+        ProductsPage result = smileClient.findProductsPage(null, null, 1);
+
+        // then
+        assertEquals(new ProductsPage(List.of(new Product(1, "Товар", "Описание товара")), "1"), result);
+    }
+
+    @Test
+    void createProduct_WireFormatIsSmile_SendsSmile() throws Exception {
+        // given
+        RestClientProductsRestClient smileClient = new RestClientProductsRestClient(RestClient.builder()
+                .baseUrl("http://localhost:54321")
+                // на запрос с телом и попыткой h2c upgrade WireMock отвечает RST_STREAM
+                .requestFactory(new JdkClientHttpRequestFactory(HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .build()))
+                .build(), SMILE, meterRegistry);
+        WireMock.stubFor(WireMock.post("/catalogue-api/products")
+                .withHeader(HttpHeaders.CONTENT_TYPE, WireMock.equalTo(SMILE.toString()))
+                .withRequestBody(WireMock.binaryEqualTo(new SmileMapper().writeValueAsBytes(
+                        new NewProductDto("Товар", "Описание товара"))))
+                .willReturn(WireMock.okJson("""
+                        {"id": 1, "title": "Товар", "details": "Описание товара"}""")));
+
+        // when
+        Product result = smileClient.createProduct("Товар", "Описание товара");
+
+        // then
+        assertEquals(new Product(1, "Товар", "Описание товара"), result);
+    }
+
+    @Test
+    void findProduct_SharedRequestFails_ThrowsToEveryCaller() throws Exception {
+        // given
+        WireMock.stubFor(WireMock.get("/catalogue-api/products/1")
+                .willReturn(WireMock.serverError().withFixedDelay(500)));
+
+        // when
+        List<Future<Optional<Product>>> calls = startConcurrently(() -> client.findProduct(1));
+
+        // then
+        for (Future<Optional<Product>> call : calls) {
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                    () -> call.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(HttpServerErrorException.InternalServerError.class, exception.getCause());
+        }
+        WireMock.verify(1, WireMock.getRequestedFor(WireMock.urlEqualTo("/catalogue-api/products/1")));
+    }
+
+    @Test
+    void findProduct_WaitingCallerIsInterrupted_ThrowsCancellationExceptionToItOnly() throws Exception {
+        // given
+        WireMock.stubFor(WireMock.get("/catalogue-api/products/1")
+                .willReturn(WireMock.okJson("""
+                        {"id": 1, "title": "Товар", "details": "Описание товара"}""")
+                        .withFixedDelay(500)));
+        AtomicReference<Optional<Product>> leaderResult = new AtomicReference<>();
+        AtomicReference<Throwable> waiterError = new AtomicReference<>();
+        Thread leader = new Thread(() -> leaderResult.set(client.findProduct(1)));
+        Thread waiter = new Thread(() -> {
+            try {
+                client.findProduct(1);
+            } catch (Throwable exception) {
+                waiterError.set(exception);
+            }
+        });
+
+        // when
+        leader.start();
+        while (WireMock.findAll(WireMock.getRequestedFor(WireMock.urlEqualTo("/catalogue-api/products/1")))
+                .isEmpty()) {
+            Thread.onSpinWait();
+        }
+        waiter.start();
+        while (waiter.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        waiter.interrupt();
+        waiter.join(5000);
+        leader.join(5000);
+
+        // then
+        assertInstanceOf(CancellationException.class, waiterError.get());
+        assertEquals(Optional.of(new Product(1, "Товар", "Описание товара")), leaderResult.get());
+        WireMock.verify(1, WireMock.getRequestedFor(WireMock.urlEqualTo("/catalogue-api/products/1")));
+    }
+
+    private <T> List<T> callConcurrently(Callable<T> call) throws Exception {
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : startConcurrently(call)) {
+            results.add(future.get(5, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    private <T> List<Future<T>> startConcurrently(Callable<T> call) {
+        CyclicBarrier start = new CyclicBarrier(CALLERS);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return call.call();
+            }));
+        }
+        return futures;
+    }
+
+    private double coalescedCalls(String request) {
+        return meterRegistry.get("catalogue.client.requests.coalesced").tag("request", request).counter().count();
+    }
+}
@@ -0,0 +1,159 @@
+package ru.adel.manager.client;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.web.reactive.function.client.WebClient;
+import ru.adel.manager.domain.entity.Product;
+import ru.adel.manager.security.OAuth2AccessTokenCache;
+import ru.adel.manager.security.OAuthExchangeFilterFunction;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+@WireMockTest(httpPort = 54321)
+class WebClientProductsRestClientIT {
+
+    OAuth2AccessTokenCache accessTokenCache = mock(OAuth2AccessTokenCache.class);
+
+    WebClientProductsRestClient client = new WebClientProductsRestClient(WebClient.builder()
+            .baseUrl("http://localhost:54321")
+            .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer token")
+            .build());
+
+    @Test
+    void findAllProducts_SeveralPages_StreamsProductsOfAllPages() {
+        // given
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/catalogue-api/products"))
+                .withQueryParam("filter", WireMock.equalTo("товар"))
+                .withQueryParam("after", WireMock.equalTo(""))
+                .willReturn(WireMock.okJson("""
+                                [{"id": 1, "title": "Товар №1", "details": "Описание товара №1"}]""")
+                        .withHeader("X-Next-Cursor", "1")));
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/catalogue-api/products"))
+                .withQueryParam("filter", WireMock.equalTo("товар"))
+                .withQueryParam("after", WireMock.equalTo("1"))
+                .willReturn(WireMock.okJson("""
+                        [{"id": 2, "title": "Товар №2", "details": "Описание товара №2"}]""")));
+
+        // when
+        List<Product> result = client.findAllProducts("товар").collectList().block();
+
+        // then
+        assertEquals(List.of(new Product(1, "Товар №1", "Описание товара №1"),
+                new Product(2, "Товар №2", "Описание товара №2")), result);
+    }
+
+    @Test
+    void findProduct_ProductDoesNotExist_ReturnsEmptyMono() {
+        // given
+        WireMock.stubFor(WireMock.get("/catalogue-api/products/1")
+                .willReturn(WireMock.notFound()));
+
+        // when
+        // then
+        assertNull(client.findProduct(1).block());
+    }
+
+    @Test
+    void createProduct_PayloadIsInvalid_ThrowsBadRequestException() {
+        // given
+        WireMock.stubFor(WireMock.post("/catalogue-api/products")
+                .willReturn(WireMock.badRequest()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, "application/problem+json")
+                        .withBody("""
+                                {"title": "Bad Request", "status": 400,
+                                "errors": ["Название товара должно быть указано"]}""")));
+
+        // when
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> client.createProduct("  ", null).block());
+
+        // then
+        assertEquals(List.of("Название товара должно быть указано"), exception.getErrors());
+    }
+
+    @Test
+    void deleteProduct_ProductDoesNotExist_ThrowsNoSuchElementException() {
+        // given
+        WireMock.stubFor(WireMock.delete("/catalogue-api/products/1")
+                .willReturn(WireMock.notFound()));
+
+        // when
+        // then
+        assertThrows(NoSuchElementException.class, () -> client.deleteProduct(1).block());
+    }
+
+    @Test
+    void findProduct_UserIsInReactorContext_SendsUsersAccessToken() {
+        // given
+        WebClientProductsRestClient authorizedClient = new WebClientProductsRestClient(WebClient.builder()
+                .baseUrl("http://localhost:54321")
+                .filter(new OAuthExchangeFilterFunction(accessTokenCache))
+                .build());
+        doReturn(CompletableFuture.completedFuture(new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+                "saqner-token", Instant.now(), Instant.now().plusSeconds(300))))
+                .when(accessTokenCache).getTokenAsync(any());
+        WireMock.stubFor(WireMock.get("/catalogue-api/products/1")
+                .withHeader(HttpHeaders.AUTHORIZATION, WireMock.equalTo("Bearer saqner-token"))
+                .willReturn(WireMock.okJson("""
+                        {"id": 1, "title": "Товар", "details": "Описание товара"}""")));
+
+        // when
+        Product result = authorizedClient.findProduct(1)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+                        new TestingAuthenticationToken("saqner", "password")))
+                .block();
+
+        // then
+        assertEquals(new Product(1, "Товар", "Описание товара"), result);
+    }
+
+    @Test
+    void findAllProducts_SeveralPagesAndUserIsInSecurityContextHolder_SendsUsersAccessTokenForEveryPage() {
+        // given
+        WebClientProductsRestClient authorizedClient = new WebClientProductsRestClient(WebClient.builder()
+                .baseUrl("http://localhost:54321")
+                .filter(new OAuthExchangeFilterFunction(accessTokenCache))
+                .build());
+        doReturn(CompletableFuture.completedFuture(new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+                "saqner-token", Instant.now(), Instant.now().plusSeconds(300))))
+                .when(accessTokenCache).getTokenAsync(any());
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/catalogue-api/products"))
+                .withQueryParam("after", WireMock.equalTo(""))
+                .withHeader(HttpHeaders.AUTHORIZATION, WireMock.equalTo("Bearer saqner-token"))
+                .willReturn(WireMock.okJson("""
+                                [{"id": 1, "title": "Товар №1", "details": "Описание товара №1"}]""")
+                        .withHeader("X-Next-Cursor", "1")));
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/catalogue-api/products"))
+                .withQueryParam("after", WireMock.equalTo("1"))
+                .withHeader(HttpHeaders.AUTHORIZATION, WireMock.equalTo("Bearer saqner-token"))
+                .willReturn(WireMock.okJson("""
+                        [{"id": 2, "title": "Товар №2", "details": "Описание товара №2"}]""")));
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("saqner", "password"));
+
+        // when
+        List<Product> result;
+        try {
+            result = authorizedClient.findAllProducts(null).collectList().block();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        // then
+        assertEquals(List.of(new Product(1, "Товар №1", "Описание товара №1"),
+                new Product(2, "Товар №2", "Описание товара №2")), result);
+    }
+}
@@ -0,0 +1,100 @@
+package ru.adel.manager.config;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import ru.adel.manager.client.GzipClientHttpRequestInterceptor;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@WireMockTest(httpPort = 54321)
+class ClientBeansIT {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    RestClient restClient = RestClient.builder()
+            .baseUrl("http://localhost:54321")
+            .requestFactory(requestFactory(Duration.ofMillis(500)))
+            .build();
+
+    @Test
+    void catalogueClientHttpRequestFactory_SeveralRequests_ReusesPooledConnection() {
+        // given
+        WireMock.stubFor(WireMock.get("/catalogue-api/products/1")
+                .willReturn(WireMock.okJson("{\"id\":1,\"title\":\"Товар\",\"details\":\"Описание\"}")));
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            this.restClient.get().uri("/catalogue-api/products/1").retrieve().toBodilessEntity();
+        }
+
+        // then
+        assertEquals(1, poolGauge("httpcomponents.httpclient.pool.total.connections", "available"));
+        assertEquals(0, poolGauge("httpcomponents.httpclient.pool.total.connections", "leased"));
+        assertEquals(0, this.meterRegistry.get("httpcomponents.httpclient.pool.total.pending")
+                .tag("httpclient", "catalogue").gauge().value());
+        assertEquals(10, this.meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "catalogue").gauge().value());
+    }
+
+    @Test
+    void catalogueClientHttpRequestFactory_ResponseIsSlowerThanReadTimeout_ThrowsResourceAccessException() {
+        // given
+        WireMock.stubFor(WireMock.get("/catalogue-api/products/1")
+                .willReturn(WireMock.okJson("{}").withFixedDelay(2000)));
+
+        // when
+        // then
+        assertThrows(ResourceAccessException.class, () -> this.restClient.get()
+                .uri("/catalogue-api/products/1")
+                .retrieve()
+                .toBodilessEntity());
+        assertEquals(0, poolGauge("httpcomponents.httpclient.pool.total.connections", "leased"));
+    }
+
+    @Test
+    void catalogueClientHttpRequestFactory_ResponseIsGzipped_ReturnsDecompressedBody() {
+        // given
+        RestClient restClient = RestClient.builder()
+                .baseUrl("http://localhost:54321")
+                .requestFactory(requestFactory(Duration.ofSeconds(5)))
+                .requestInterceptor(new GzipClientHttpRequestInterceptor())
+                .build();
+        // WireMock сжимает ответ сам, если запрос принимает gzip
+        WireMock.stubFor(WireMock.get("/catalogue-api/products/1")
+                .willReturn(WireMock.okJson("{\"id\":1,\"title\":\"Товар\",\"details\":\"%s\"}"
+                        .formatted("Описание ".repeat(100)))));
+
+        // when
+        String body = restClient.get()
+                .uri("/catalogue-api/products/1")
+                .retrieve()
+                .body(String.class);
+
+        // then
+        assertTrue(body.endsWith("Описание \"}"), body);
+        WireMock.verify(WireMock.getRequestedFor(WireMock.urlEqualTo("/catalogue-api/products/1"))
+                .withHeader(HttpHeaders.ACCEPT_ENCODING, WireMock.containing("gzip")));
+    }
+
+    private ClientHttpRequestFactory requestFactory(Duration readTimeout) {
+        return new ClientBeans().catalogueClientHttpRequestFactory(10, Duration.ofSeconds(30),
+                Duration.ofSeconds(1), readTimeout, false, true, this.meterRegistry);
+    }
+
+    private double poolGauge(String name, String state) {
+        return this.meterRegistry.get(name)
+                .tags("httpclient", "catalogue", "state", state)
+                .gauge()
+                .value();
+    }
+}
@@ -0,0 +1,54 @@
+package ru.adel.manager.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSpanExporterTest {
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void export_SpansAreFinished_AppendsThemAsJsonLines(@TempDir Path directory) throws Exception {
+        // given
+        Path file = directory.resolve("spans/manager-service.jsonl");
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(new FileSpanExporter(file, objectMapper)))
+                .build();
+        Tracer tracer = tracerProvider.get("test");
+
+        // when
+        Span parent = tracer.spanBuilder("http get").startSpan();
+        try (Scope ignored = parent.makeCurrent()) {
+            tracer.spanBuilder("oauth2 token").setAttribute("registration", "keycloak").startSpan().end();
+        } finally {
+            parent.end();
+        }
+        tracerProvider.shutdown();
+
+        // then
+        List<JsonNode> spans = Files.readAllLines(file).stream()
+                .map(line -> assertDoesNotThrow(() -> objectMapper.readTree(line)))
+                .toList();
+        assertEquals(2, spans.size());
+        JsonNode token = spans.get(0);
+        JsonNode request = spans.get(1);
+        assertEquals("oauth2 token", token.get("name").asText());
+        assertEquals("keycloak", token.get("attributes").get("registration").asText());
+        assertEquals(request.get("spanId").asText(), token.get("parentSpanId").asText());
+        assertEquals(request.get("traceId").asText(), token.get("traceId").asText());
+        assertTrue(request.get("parentSpanId").isNull());
+    }
+}
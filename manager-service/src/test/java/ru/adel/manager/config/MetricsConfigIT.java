@@ -0,0 +1,57 @@
+package ru.adel.manager.config;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=prometheus",
+        "management.metrics.distribution.percentiles-histogram.http.server.requests=true"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@WireMockTest(httpPort = 54321)
+class MetricsConfigIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @SneakyThrows
+    @Test
+    void scrape_ProductPageWasRequested_ReturnsEndpointAndJvmMetrics() {
+        // given
+        WireMock.stubFor(WireMock.get("/catalogue-api/products/1")
+                .willReturn(WireMock.okJson("""
+                        {"id": 1, "title": "Товар", "details": "Описание"}""")));
+        mockMvc.perform(MockMvcRequestBuilders.get("/catalogue/products/1")
+                        .with(user("saqner").roles("MANAGER")))
+                .andExpect(status().isOk());
+
+        // when
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus")
+                        .with(user("saqner").roles("MANAGER")))
+                // then
+                .andExpectAll(
+                        status().isOk(),
+                        content().string(allOf(
+                                matchesPattern("(?s).*http_server_requests_seconds_bucket\\{[^}]*"
+                                               + "operation=\"ProductController.getProduct\""
+                                               + "[^}]*outcome=\"SUCCESS\".*"),
+                                containsString("catalogue_fragments_render_seconds_count"),
+                                containsString("jvm_gc_max_data_size_bytes"))));
+    }
+}
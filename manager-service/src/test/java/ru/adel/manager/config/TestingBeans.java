@@ -1,14 +1,25 @@
 package ru.adel.manager.config;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.security.oauth2.client.web.OAuth2AuthorizedClientRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
 import org.springframework.web.client.RestClient;
 import ru.adel.manager.client.RestClientProductsRestClient;
+import ru.adel.manager.security.OAuth2AccessTokenCache;
+import ru.adel.manager.security.OAuthClientHttpRequestInterceptor;
+
+import java.time.Duration;
+import java.time.Instant;
 
 import static org.mockito.Mockito.mock;
 
@@ -28,11 +39,31 @@ public class TestingBeans {
     @Bean
     @Primary
     public RestClientProductsRestClient testRestClientProductsRestClient(
-            @Value("${selmag.services.catalogue.uri:http://localhost:54321}") String catalogueBaseUri
+            @Value("${selmag.services.catalogue.uri:http://localhost:54321}") String catalogueBaseUri,
+            ObservationRegistry observationRegistry
     ) {
+        OAuthClientHttpRequestInterceptor oAuthInterceptor =
+                new OAuthClientHttpRequestInterceptor(testAccessTokenCache());
+        oAuthInterceptor.setObservationRegistry(observationRegistry);
         return new RestClientProductsRestClient(RestClient.builder()
                 .baseUrl(catalogueBaseUri)
                 .requestFactory(new JdkClientHttpRequestFactory())
+                .observationRegistry(observationRegistry)
+                .requestInterceptor(oAuthInterceptor)
                 .build());
     }
+
+    private static OAuth2AccessTokenCache testAccessTokenCache() {
+        ClientRegistration clientRegistration = ClientRegistration.withRegistrationId("keycloak")
+                .clientId("manager-app")
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .tokenUri("http://localhost:8082/token")
+                .build();
+        return new OAuth2AccessTokenCache(authorizeRequest -> new OAuth2AuthorizedClient(clientRegistration,
+                authorizeRequest.getPrincipal().getName(),
+                new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "%s-token".formatted(
+                        authorizeRequest.getPrincipal().getName()), Instant.now(),
+                        Instant.now().plus(Duration.ofHours(1)))),
+                "keycloak", Duration.ofMinutes(1), 100, Runnable::run, new SimpleMeterRegistry());
+    }
 }
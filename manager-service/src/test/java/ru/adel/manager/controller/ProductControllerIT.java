@@ -12,6 +12,7 @@ import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilde
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.adel.manager.domain.entity.Product;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -47,8 +48,44 @@ class ProductControllerIT {
                 .andExpectAll(
                         status().isOk(),
                         view().name("catalogue/products/product"),
-                        model().attribute("product", new Product(1, "Продукт", "Описание"))
+                        model().attribute("product", new Product(1, "Продукт", "Описание")),
+                        content().string(containsString("<h1>Продукт</h1>"))
+                );
+    }
+
+    @SneakyThrows
+    @Test
+    void getProduct_ProductIsNotModified_RevalidatesAndReturnsProductPage() {
+        // given
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/catalogue/products/2")
+                .with(user("saqner").roles("MANAGER"));
+
+        WireMock.stubFor(WireMock.get("/catalogue-api/products/2")
+                .atPriority(2)
+                .willReturn(WireMock.okJson("""
+                        {
+                        "id":2,
+                        "title":"Продукт",
+                        "details" : "Описание"
+                        }
+                        """).withHeader("ETag", "\"0\"")));
+        WireMock.stubFor(WireMock.get("/catalogue-api/products/2")
+                .atPriority(1)
+                .withHeader("If-None-Match", WireMock.equalTo("\"0\""))
+                .willReturn(WireMock.status(304).withHeader("ETag", "\"0\"")));
+
+        // when
+        mockMvc.perform(requestBuilder);
+        mockMvc.perform(requestBuilder)
+                // then
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        view().name("catalogue/products/product"),
+                        model().attribute("product", new Product(2, "Продукт", "Описание"))
                 );
+        WireMock.verify(1, WireMock.getRequestedFor(WireMock.urlPathEqualTo("/catalogue-api/products/2"))
+                .withHeader("If-None-Match", WireMock.equalTo("\"0\"")));
     }
 
     @SneakyThrows
@@ -0,0 +1,151 @@
+package ru.adel.manager.controller;
+
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import ru.adel.manager.domain.entity.Product;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductFragmentCacheTest {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    ProductFragmentCache fragmentCache;
+
+    @BeforeEach
+    void setUp() {
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig()
+                .observationHandler(new DefaultMeterObservationHandler(this.meterRegistry));
+
+        MockServletContext servletContext = new MockServletContext();
+        this.fragmentCache = new ProductFragmentCache(templateEngine, servletContext, 100, this.meterRegistry,
+                observationRegistry);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(
+                new MockHttpServletRequest(servletContext), new MockHttpServletResponse()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void details_ProductIsUnchanged_RendersItOnce() {
+        // given
+        Product product = new Product(1, "Товар №1", "Описание товара №1");
+
+        // when
+        String first = this.fragmentCache.details(product);
+        String second = this.fragmentCache.details(product);
+
+        // then
+        assertSame(first, second);
+        assertTrue(first.contains("<h1>Товар №1</h1>"));
+        assertTrue(first.contains("Описание товара №1"));
+        assertEquals(1, renders("details"));
+        assertTrue(this.meterRegistry.get("catalogue.fragments.render.saved").tag("fragment", "details")
+                .counter().count() > 0);
+    }
+
+    @Test
+    void details_ProductIsChanged_RendersNewFragment() {
+        // given
+        this.fragmentCache.details(new Product(1, "Товар №1", "Описание товара №1"));
+
+        // when
+        String result = this.fragmentCache.details(new Product(1, "Новое название", "Описание товара №1"));
+
+        // then
+        assertTrue(result.contains("<h1>Новое название</h1>"));
+        assertEquals(2, renders("details"));
+    }
+
+    @Test
+    void rows_FiltersDiffer_CachesThemSeparately() {
+        // given
+        List<Product> products = List.of(new Product(1, "Товар №1", null), new Product(2, "Товар №2", null));
+
+        // when
+        String html = this.fragmentCache.rows(null, products);
+        this.fragmentCache.rows(null, products);
+        this.fragmentCache.rows("Товар", products);
+
+        // then
+        assertTrue(html.contains("<a href=\"/catalogue/products/2\">Товар №2</a>"));
+        assertEquals(2, renders("rows"));
+    }
+
+    @Test
+    void details_ProductHasVersion_KeysOnVersion() {
+        // given
+        this.fragmentCache.details(new Product(1, "Товар №1", "Описание товара №1", 3));
+
+        // when
+        String sameVersion = this.fragmentCache.details(new Product(1, "Товар №1", "Описание товара №1", 3));
+        String newVersion = this.fragmentCache.details(new Product(1, "Новое название", "Описание товара №1", 4));
+
+        // then
+        assertTrue(sameVersion.contains("<h1>Товар №1</h1>"));
+        assertTrue(newVersion.contains("<h1>Новое название</h1>"));
+        assertEquals(2, renders("details"));
+    }
+
+    @Test
+    void rows_ProductsHaveVersions_KeysOnIdsAndVersions() {
+        // given
+        this.fragmentCache.rows(null, List.of(new Product(1, "Товар №1", null, 0), new Product(2, "Товар №2", null, 0)));
+
+        // when
+        this.fragmentCache.rows(null, List.of(new Product(1, "Товар №1", null, 0), new Product(2, "Товар №2", null, 0)));
+        String html = this.fragmentCache.rows(null,
+                List.of(new Product(1, "Товар №1", null, 0), new Product(2, "Новое название", null, 1)));
+
+        // then
+        assertTrue(html.contains("<a href=\"/catalogue/products/2\">Новое название</a>"));
+        assertEquals(2, renders("rows"));
+    }
+
+    @Test
+    void evict_ProductIsCached_RendersItsFragmentsAgain() {
+        // given
+        Product product = new Product(1, "Товар №1", "Описание товара №1");
+        Product other = new Product(2, "Товар №2", "Описание товара №2");
+        this.fragmentCache.details(product);
+        this.fragmentCache.details(other);
+        this.fragmentCache.rows(null, List.of(other));
+
+        // when
+        this.fragmentCache.evict(1);
+        this.fragmentCache.details(product);
+        this.fragmentCache.details(other);
+        this.fragmentCache.rows(null, List.of(other));
+
+        // then
+        assertEquals(3, renders("details"));
+        assertEquals(2, renders("rows"));
+    }
+
+    private long renders(String fragment) {
+        return this.meterRegistry.get("catalogue.fragments.render").tag("fragment", fragment).timer().count();
+    }
+}
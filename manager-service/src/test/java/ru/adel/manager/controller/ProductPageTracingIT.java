@@ -0,0 +1,153 @@
+package ru.adel.manager.controller;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.web.OAuth2AuthorizedClientRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.adel.manager.client.ProductsRestClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Страница товара проходит через настоящую цепочку productsRestClient с её потоками catalogue-*;
+ * заглушками служат только каталог и выдача токенов на WireMock.
+ */
+@SpringBootTest(properties = {
+        "management.tracing.sampling.probability=1.0",
+        "selmag.services.catalogue.uri=http://localhost:54321",
+        "spring.main.allow-bean-definition-overriding=true"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(metrics = false)
+@WireMockTest(httpPort = 54321)
+class ProductPageTracingIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    InMemorySpanExporter spanExporter;
+
+    @Autowired
+    SdkTracerProvider tracerProvider;
+
+    @MockBean
+    ClientRegistrationRepository clientRegistrationRepository;
+
+    @MockBean
+    OAuth2AuthorizedClientRepository authorizedClientRepository;
+
+    @SneakyThrows
+    @Test
+    void getProduct_ProductExists_RecordsSpanTreeAndPropagatesTraceContext() {
+        // given
+        doReturn(ClientRegistration.withRegistrationId("keycloak")
+                .clientId("manager-app")
+                .clientSecret("secret")
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .tokenUri("http://localhost:54321/token")
+                .build()).when(clientRegistrationRepository).findByRegistrationId("keycloak");
+        WireMock.stubFor(WireMock.post("/token")
+                .willReturn(WireMock.okJson("""
+                        {"access_token": "saqner-token", "token_type": "Bearer", "expires_in": 3600}""")));
+        WireMock.stubFor(WireMock.get("/catalogue-api/products/7")
+                .willReturn(WireMock.okJson("""
+                        {"id": 7, "title": "Товар", "details": "Описание"}""")));
+
+        // when
+        mockMvc.perform(MockMvcRequestBuilders.get("/catalogue/products/7")
+                        .with(user("saqner").roles("MANAGER")))
+                .andExpect(status().isOk());
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+
+        // then
+        List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        SpanData page = spans.stream()
+                .filter(span -> span.getKind() == SpanKind.SERVER && !span.getParentSpanContext().isValid())
+                .findFirst()
+                .orElseThrow();
+        // между span'ом запроса и работой контроллера лежат span'ы Spring Security
+        SpanData catalogueCall = descendant(spans, page, "http get");
+        assertEquals(SpanKind.CLIENT, catalogueCall.getKind());
+        // токен получен до передачи вызова в поток catalogue-*, поэтому его span — сосед span'а запроса к каталогу
+        SpanData token = descendant(spans, page, "oauth2 token");
+        assertEquals(catalogueCall.getParentSpanId(), token.getParentSpanId());
+        descendant(spans, page, "render fragment details");
+        descendant(spans, page, "render catalogue/products/product");
+        assertTrue(spans.stream().allMatch(span -> span.getTraceId().equals(page.getTraceId())));
+
+        // токен получен ещё в потоке запроса, поэтому достался менеджеру клиентов запроса
+        verify(authorizedClientRepository).saveAuthorizedClient(any(), any(), any(), any());
+        WireMock.verify(WireMock.getRequestedFor(WireMock.urlPathEqualTo("/catalogue-api/products/7"))
+                .withHeader("Authorization", WireMock.equalTo("Bearer saqner-token"))
+                .withHeader("traceparent", WireMock.equalTo("00-%s-%s-01"
+                        .formatted(page.getTraceId(), catalogueCall.getSpanId()))));
+    }
+
+    private static SpanData descendant(List<SpanData> spans, SpanData ancestor, String name) {
+        return spans.stream()
+                .filter(span -> span.getName().equals(name) && isDescendant(spans, span, ancestor))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Нет span'а %s внутри %s среди %s"
+                        .formatted(name, ancestor.getName(), spans.stream().map(SpanData::getName).toList())));
+    }
+
+    private static boolean isDescendant(List<SpanData> spans, SpanData span, SpanData ancestor) {
+        Map<String, SpanData> spansById = spans.stream()
+                .collect(Collectors.toMap(SpanData::getSpanId, Function.identity()));
+        for (SpanData current = span; current != null && current.getParentSpanContext().isValid();
+             current = spansById.get(current.getParentSpanId())) {
+            if (current.getParentSpanId().equals(ancestor.getSpanId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @TestConfiguration
+    static class InMemorySpans {
+
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+
+        // заменяет заглушку клиента из TestingBeans боевой цепочкой
+        @Bean
+        @Primary
+        ProductsRestClient testRestClientProductsRestClient(
+                @Qualifier("productsRestClient") ProductsRestClient productsRestClient) {
+            return productsRestClient;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import ru.adel.manager.client.BadRequestException;
 import ru.adel.manager.client.ProductsRestClient;
 import ru.adel.manager.controller.dto.NewProductDto;
 import ru.adel.manager.domain.entity.Product;
+import ru.adel.manager.domain.entity.ProductsPage;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -28,6 +29,9 @@ class ProductsControllerTest {
 
     @Mock
     ProductsRestClient productsRestClient;
+
+    @Mock
+    ProductFragmentCache fragmentCache;
     @Test
      void getProductsList_ReturnsProductsListPage(){
         ConcurrentModel model = new ConcurrentModel();
@@ -36,13 +40,16 @@ class ProductsControllerTest {
                 .mapToObj(i -> new Product(i, "Товар %d".formatted(i),
                         "Описание товара %d".formatted(i)))
                 .collect(Collectors.toList());
-        when(productsRestClient.findAllProducts(filter)).thenReturn(products);
+        when(productsRestClient.findProductsPage(filter, "0.5:10", 20)).thenReturn(new ProductsPage(products, "0.4:4"));
+        when(fragmentCache.rows(filter, products)).thenReturn("<tr></tr>");
 
-        String result = productController.getProductsList(model, filter);
+        String result = productController.getProductsList(model, filter, "0.5:10", 20);
 
         assertEquals("catalogue/products/list",result);
         assertEquals(filter,model.getAttribute("filter"));
         assertEquals(products,model.getAttribute("products"));
+        assertEquals("<tr></tr>", model.getAttribute("productRows"));
+        assertEquals("0.4:4", model.getAttribute("nextCursor"));
 
     }
     @Test
@@ -16,6 +16,8 @@ import ru.adel.manager.domain.entity.Product;
 
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -58,6 +60,90 @@ class ProductsControllerTestIT {
     }
 
 
+    @SneakyThrows
+    @Test
+    void getProductList_CatalogueReturnsNextCursor_ReturnsPageWithNextCursor() {
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/catalogue/products/list")
+                .queryParam("after", "2")
+                .with(user("saqner").roles("MANAGER"));
+
+        WireMock.stubFor(WireMock.get(WireMock.urlPathMatching("/catalogue-api/products"))
+                .withQueryParam("after", WireMock.equalTo("2"))
+                .willReturn(WireMock.ok("""
+                          [
+                            {"id": 3, "title": "Товар №3", "details": "Описание товара №3"}
+                        ]""")
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withHeader("X-Next-Cursor", "3")));
+
+        mockMvc.perform(requestBuilder)
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        view().name("catalogue/products/list"),
+                        model().attribute("nextCursor", "3"),
+                        model().attribute("products",
+                                List.of(new Product(3, "Товар №3", "Описание товара №3")))
+                );
+        WireMock.verify(WireMock.getRequestedFor(WireMock.urlPathMatching("/catalogue-api/products"))
+                .withQueryParam("after", WireMock.equalTo("2"))
+                .withQueryParam("limit", WireMock.equalTo("20")));
+    }
+
+    @SneakyThrows
+    @Test
+    void streamProductList_CatalogueReturnsSeveralPages_RendersAllProducts() {
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/catalogue/products/list")
+                .queryParam("stream", "true")
+                .with(user("saqner").roles("MANAGER"));
+
+        WireMock.stubFor(WireMock.get(WireMock.urlPathMatching("/catalogue-api/products"))
+                .withQueryParam("after", WireMock.equalTo(""))
+                .willReturn(WireMock.okJson("""
+                          [
+                            {"id": 1, "title": "Товар №1"}
+                        ]""")
+                        .withHeader("X-Next-Cursor", "1")));
+        WireMock.stubFor(WireMock.get(WireMock.urlPathMatching("/catalogue-api/products"))
+                .withQueryParam("after", WireMock.equalTo("1"))
+                .willReturn(WireMock.okJson("""
+                          [
+                            {"id": 2, "title": "Товар №2"}
+                        ]""")));
+
+        mockMvc.perform(requestBuilder)
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        view().name("catalogue/products/list"),
+                        content().string(containsString("Товар №1")),
+                        content().string(containsString("Товар №2")),
+                        content().string(not(containsString("Следующая страница")))
+                );
+        WireMock.verify(2, WireMock.getRequestedFor(WireMock.urlPathMatching("/catalogue-api/products"))
+                .withQueryParam("limit", WireMock.equalTo("500")));
+    }
+
+    @SneakyThrows
+    @Test
+    void getProductList_LimitIsAllowed_RequestsPageOfThatSize() {
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/catalogue/products/list")
+                .queryParam("limit", "50")
+                .with(user("saqner").roles("MANAGER"));
+
+        WireMock.stubFor(WireMock.get(WireMock.urlPathMatching("/catalogue-api/products"))
+                .willReturn(WireMock.okJson("[]")));
+
+        mockMvc.perform(requestBuilder)
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        model().attribute("limit", 50)
+                );
+        WireMock.verify(WireMock.getRequestedFor(WireMock.urlPathMatching("/catalogue-api/products"))
+                .withQueryParam("limit", WireMock.equalTo("50")));
+    }
+
     @Test
     void getNewProductPage_ReturnsNewProductPage() throws Exception {
         // given
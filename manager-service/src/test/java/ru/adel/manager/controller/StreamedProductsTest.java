@@ -0,0 +1,59 @@
+package ru.adel.manager.controller;
+
+import org.junit.jupiter.api.Test;
+import ru.adel.manager.domain.entity.Product;
+import ru.adel.manager.domain.entity.ProductsPage;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamedProductsTest {
+
+    @Test
+    void iterator_SeveralPages_LoadsNextPageOnlyAfterFlushingPreviousOne() {
+        // given
+        List<String> events = new ArrayList<>();
+        StreamedProducts products = new StreamedProducts(after -> {
+            events.add("page after " + after);
+            return after == null
+                    ? new ProductsPage(List.of(product(1), product(2)), "2")
+                    : new ProductsPage(List.of(product(3)), null);
+        }, () -> events.add("flush"));
+
+        // when
+        Iterator<Product> iterator = products.iterator();
+        Product first = iterator.next();
+        Product second = iterator.next();
+        List<String> eventsBeforeSecondPage = List.copyOf(events);
+        Product third = iterator.next();
+
+        // then
+        assertEquals(List.of(product(1), product(2), product(3)), List.of(first, second, third));
+        assertFalse(iterator.hasNext());
+        assertEquals(List.of("page after null"), eventsBeforeSecondPage);
+        assertEquals(List.of("page after null", "flush", "page after 2"), events);
+    }
+
+    @Test
+    void iterator_EmptyPageWithNextCursor_SkipsToNextPage() {
+        // given
+        StreamedProducts products = new StreamedProducts(after -> after == null
+                ? new ProductsPage(List.of(), "7")
+                : new ProductsPage(List.of(product(8)), null), () -> {
+        });
+
+        // when
+        List<Product> result = new ArrayList<>();
+        products.forEach(result::add);
+
+        // then
+        assertEquals(List.of(product(8)), result);
+    }
+
+    private static Product product(int productId) {
+        return new Product(productId, "Товар №%d".formatted(productId), null);
+    }
+}
@@ -0,0 +1,221 @@
+package ru.adel.manager.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.ClientAuthorizationRequiredException;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OAuth2AccessTokenCacheTest {
+
+    static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    static final ClientRegistration CLIENT_REGISTRATION = ClientRegistration.withRegistrationId("keycloak")
+            .clientId("manager-app")
+            .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+            .tokenUri("http://localhost:8082/token")
+            .build();
+
+    @Mock
+    OAuth2AuthorizedClientManager authorizedClientManager;
+
+    Authentication principal = new TestingAuthenticationToken("saqner", "password");
+
+    Queue<Runnable> backgroundTasks = new ArrayDeque<>();
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    AtomicReference<Instant> now = new AtomicReference<>(NOW);
+
+    OAuth2AccessTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+        cache = new OAuth2AccessTokenCache(authorizedClientManager, "keycloak", Duration.ofMinutes(1), 100,
+                backgroundTasks::add, clock, meterRegistry);
+    }
+
+    @Test
+    void getToken_TokenIsCached_DoesNotCallAuthorizedClientManager() {
+        // given
+        doReturn(authorizedClient("token", NOW.plusSeconds(300))).when(authorizedClientManager).authorize(any());
+
+        // when
+        cache.getToken(principal);
+        OAuth2AccessToken result = cache.getToken(principal);
+
+        // then
+        assertEquals("token", result.getTokenValue());
+        verify(authorizedClientManager, times(1)).authorize(any());
+        assertEquals(1, meterRegistry.get("oauth2.token.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("oauth2.token.cache.requests").tag("result", "miss").counter().count());
+        assertEquals(1, meterRegistry.get("oauth2.token.refresh").tag("mode", "blocking").timer().count());
+        assertTrue(backgroundTasks.isEmpty());
+    }
+
+    @Test
+    void getToken_TokenExpiresSoon_ReturnsItAndRefreshesInBackground() {
+        // given
+        doReturn(authorizedClient("token", NOW.plusSeconds(300)), authorizedClient("new-token", NOW.plusSeconds(600)))
+                .when(authorizedClientManager).authorize(any());
+        cache.getToken(principal);
+        now.set(NOW.plusSeconds(250));
+
+        // when
+        OAuth2AccessToken staleResult = cache.getToken(principal);
+        OAuth2AccessToken secondStaleResult = cache.getToken(principal);
+        int scheduledRefreshes = backgroundTasks.size();
+        runBackgroundTasks();
+        OAuth2AccessToken refreshedResult = cache.getToken(principal);
+
+        // then
+        assertEquals("token", staleResult.getTokenValue());
+        assertEquals("token", secondStaleResult.getTokenValue());
+        assertEquals(1, scheduledRefreshes);
+        assertEquals("new-token", refreshedResult.getTokenValue());
+        verify(authorizedClientManager, times(2)).authorize(any());
+        assertEquals(1, meterRegistry.get("oauth2.token.refresh").tag("mode", "background").timer().count());
+    }
+
+    @Test
+    void getToken_TokenExpired_AuthorizesBeforeReturning() {
+        // given
+        doReturn(authorizedClient("token", NOW.plusSeconds(300)), authorizedClient("new-token", NOW.plusSeconds(900)))
+                .when(authorizedClientManager).authorize(any());
+        cache.getToken(principal);
+        now.set(NOW.plusSeconds(300));
+
+        // when
+        OAuth2AccessToken result = cache.getToken(principal);
+
+        // then
+        assertEquals("new-token", result.getTokenValue());
+        verify(authorizedClientManager, times(2)).authorize(any());
+    }
+
+    @Test
+    void getTokenAsync_TokenIsMissing_AuthorizesOnExecutor() {
+        // given
+        doReturn(authorizedClient("token", NOW.plusSeconds(300))).when(authorizedClientManager).authorize(any());
+
+        // when
+        CompletableFuture<OAuth2AccessToken> result = cache.getTokenAsync(principal);
+        boolean completedBeforeAuthorization = result.isDone();
+        runBackgroundTasks();
+
+        // then
+        assertFalse(completedBeforeAuthorization);
+        assertEquals("token", result.join().getTokenValue());
+        assertEquals("token", cache.getTokenAsync(principal).join().getTokenValue());
+        verify(authorizedClientManager, times(1)).authorize(any());
+    }
+
+    @Test
+    void getToken_ClientIsNotAuthorized_ThrowsClientAuthorizationRequiredException() {
+        // given
+        doReturn(null).when(authorizedClientManager).authorize(any());
+
+        // when
+        // then
+        assertThrows(ClientAuthorizationRequiredException.class, () -> cache.getToken(principal));
+    }
+
+    @Test
+    void getToken_ConcurrentRequestsWithoutToken_ShareOneAuthorization() throws Exception {
+        // given
+        CountDownLatch authorizationStarted = new CountDownLatch(1);
+        CountDownLatch releaseAuthorization = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            authorizationStarted.countDown();
+            assertTrue(releaseAuthorization.await(5, TimeUnit.SECONDS));
+            return authorizedClient("token", NOW.plusSeconds(300));
+        }).when(authorizedClientManager).authorize(any());
+        Queue<String> results = new ConcurrentLinkedQueue<>();
+        Runnable request = () -> results.add(cache.getToken(principal).getTokenValue());
+
+        // when
+        Thread first = new Thread(request);
+        first.start();
+        assertTrue(authorizationStarted.await(5, TimeUnit.SECONDS));
+        List<Thread> waiting = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Thread thread = new Thread(request);
+            thread.start();
+            waiting.add(thread);
+        }
+        for (Thread thread : waiting) {
+            while (thread.getState() != Thread.State.WAITING) {
+                Thread.onSpinWait();
+            }
+        }
+        releaseAuthorization.countDown();
+        first.join(5000);
+        for (Thread thread : waiting) {
+            thread.join(5000);
+        }
+
+        // then
+        assertEquals(List.of("token", "token", "token", "token", "token", "token", "token", "token"),
+                List.copyOf(results));
+        verify(authorizedClientManager, times(1)).authorize(any());
+        assertEquals(8, meterRegistry.get("oauth2.token.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    private void runBackgroundTasks() {
+        Runnable task;
+        while ((task = backgroundTasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static OAuth2AuthorizedClient authorizedClient(String tokenValue, Instant expiresAt) {
+        return new OAuth2AuthorizedClient(CLIENT_REGISTRATION, "saqner",
+                new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, tokenValue, expiresAt.minusSeconds(300),
+                        expiresAt));
+    }
+}
@@ -0,0 +1,105 @@
+package ru.adel.manager.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OAuthTaskDecoratorTest {
+
+    static final ClientRegistration CLIENT_REGISTRATION = ClientRegistration.withRegistrationId("keycloak")
+            .clientId("manager-app")
+            .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+            .tokenUri("http://localhost:8082/token")
+            .build();
+
+    // атрибуты запроса, которые видел менеджер авторизованных клиентов при каждом обращении
+    List<Object> authorizations = new CopyOnWriteArrayList<>();
+
+    OAuthClientHttpRequestInterceptor interceptor = new OAuthClientHttpRequestInterceptor(new OAuth2AccessTokenCache(
+            authorizeRequest -> {
+                RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+                authorizations.add(requestAttributes == null ? "none" : requestAttributes);
+                return new OAuth2AuthorizedClient(CLIENT_REGISTRATION, authorizeRequest.getPrincipal().getName(),
+                        new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "%s-token".formatted(
+                                authorizeRequest.getPrincipal().getName()), Instant.now(),
+                                Instant.now().plus(Duration.ofHours(1))));
+            },
+            "keycloak", Duration.ofMinutes(1), 100, Runnable::run, new SimpleMeterRegistry()));
+
+    SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("catalogue-");
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void decorate_TaskSubmittedDuringRequest_AcquiresTokenBeforeDispatchAndPassesOnlyToken() {
+        // given
+        executor.setTaskDecorator(new OAuthTaskDecorator(interceptor));
+        ServletRequestAttributes requestAttributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("saqner", "password"));
+
+        // when
+        CompletableFuture<List<String>> worker = CompletableFuture.supplyAsync(
+                () -> List.of(RequestContextHolder.getRequestAttributes() == null ? "none" : "request",
+                        authorization()), executor);
+
+        // then
+        assertEquals(List.of("none", "Bearer saqner-token"), worker.join());
+        assertEquals(List.of(requestAttributes), authorizations);
+    }
+
+    @Test
+    void decorate_TaskSubmittedOutsideRequest_LeavesTokenToInterceptor() {
+        // given
+        executor.setTaskDecorator(runnable -> new OAuthTaskDecorator(interceptor).decorate(() -> {
+            SecurityContextHolder.getContext()
+                    .setAuthentication(new TestingAuthenticationToken("service", "password"));
+            try {
+                runnable.run();
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        }));
+
+        // when
+        CompletableFuture<String> worker = CompletableFuture.supplyAsync(this::authorization, executor);
+
+        // then
+        assertEquals("Bearer service-token", worker.join());
+        assertEquals(List.of("none"), authorizations);
+    }
+
+    @SneakyThrows
+    private String authorization() {
+        MockClientHttpRequest request = new MockClientHttpRequest();
+        interceptor.intercept(request, new byte[0], (httpRequest, body) -> new MockClientHttpResponse());
+        return request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+    }
+}